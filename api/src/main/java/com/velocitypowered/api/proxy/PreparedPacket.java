@@ -0,0 +1,33 @@
+package com.velocitypowered.api.proxy;
+
+import java.util.Collection;
+
+/**
+ * Something to send to players, such as a message or a title, that is prepared once so that it
+ * can be sent to many players cheaply. Its contents are serialized and encoded at most once for
+ * each protocol version, and then reused for every player using that version.
+ *
+ * <p>A prepared packet may be kept and sent as often as needed. To send something else, prepare
+ * a new packet.</p>
+ *
+ * @see ProxyServer#prepareMessage(net.kyori.text.Component,
+ *     com.velocitypowered.api.util.MessagePosition)
+ * @see ProxyServer#prepareTitle(com.velocitypowered.api.util.title.Title)
+ * @see ProxyServer#prepareHeaderAndFooter(net.kyori.text.Component, net.kyori.text.Component)
+ */
+public interface PreparedPacket {
+
+  /**
+   * Sends this packet to the specified player.
+   *
+   * @param player the player to send the packet to
+   */
+  void sendTo(Player player);
+
+  /**
+   * Sends this packet to each of the specified players.
+   *
+   * @param players the players to send the packet to
+   */
+  void sendTo(Collection<? extends Player> players);
+}
@@ -9,7 +9,9 @@ import com.velocitypowered.api.proxy.messages.ChannelRegistrar;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.scheduler.Scheduler;
+import com.velocitypowered.api.util.MessagePosition;
 import com.velocitypowered.api.util.ProxyVersion;
+import com.velocitypowered.api.util.title.Title;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Optional;
@@ -45,6 +47,32 @@ public interface ProxyServer {
    */
   void broadcast(Component component);
 
+  /**
+   * Prepares a chat message, so that it can be sent to many players cheaply.
+   *
+   * @param component the chat message to send
+   * @param position the position for the message
+   * @return the prepared message
+   */
+  PreparedPacket prepareMessage(Component component, MessagePosition position);
+
+  /**
+   * Prepares a title, so that it can be sent to many players cheaply.
+   *
+   * @param title the title to send
+   * @return the prepared title
+   */
+  PreparedPacket prepareTitle(Title title);
+
+  /**
+   * Prepares a tab list header and footer, so that they can be sent to many players cheaply.
+   *
+   * @param header the header component
+   * @param footer the footer component
+   * @return the prepared header and footer
+   */
+  PreparedPacket prepareHeaderAndFooter(Component header, Component footer);
+
   /**
    * Retrieves all players currently connected to this proxy. This call may or may not be a snapshot
    * of all players online.
@@ -30,4 +30,15 @@ public interface RegisteredServer extends ChannelMessageSink {
    * @return the server ping result from the server
    */
   CompletableFuture<ServerPing> ping();
+
+  /**
+   * Attempts to ping the remote server on behalf of the specified player and return the server
+   * list ping result. The ping is made from the thread that handles the player's connection, and
+   * the returned future is completed on that thread, so that callbacks which go on to act on the
+   * player don't have to switch threads.
+   *
+   * @param player the player the ping is made for
+   * @return the server ping result from the server
+   */
+  CompletableFuture<ServerPing> ping(Player player);
 }
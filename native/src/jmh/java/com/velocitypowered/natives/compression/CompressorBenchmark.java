@@ -0,0 +1,108 @@
+package com.velocitypowered.natives.compression;
+
+import com.velocitypowered.natives.util.Natives;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the Java compressors against the native zlib and libdeflate compressors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CompressorBenchmark {
+
+  @Param({"java", "java11", "zlib", "libdeflate"})
+  public String implementation;
+
+  @Param({"256", "8192", "131072"})
+  public int size;
+
+  private VelocityCompressor compressor;
+  private ByteBuf uncompressed;
+  private ByteBuf compressed;
+  private ByteBuf out;
+
+  /**
+   * Creates the compressor and some compressible data, roughly like a typical packet.
+   */
+  @Setup
+  public void setup() throws DataFormatException {
+    if (implementation.equals("java")) {
+      compressor = JavaVelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION);
+    } else if (implementation.equals("java11")) {
+      compressor = Java11VelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION);
+    } else {
+      VelocityCompressorFactory factory = Natives.compress.getVariant(
+          implementation.equals("zlib") ? "native" : implementation);
+      if (factory == null) {
+        throw new IllegalStateException("The " + implementation + " compressor is not available");
+      }
+      compressor = factory.create(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    Random random = new Random(1);
+    uncompressed = Unpooled.directBuffer(size);
+    while (uncompressed.writableBytes() > 0) {
+      // A small alphabet with runs of zeroes compresses about as well as chunk data does.
+      uncompressed.writeByte(random.nextInt(4) == 0 ? 0 : random.nextInt(16));
+    }
+    compressed = Unpooled.directBuffer(size);
+    compressor.deflate(uncompressed, compressed);
+    out = Unpooled.directBuffer(size * 2);
+  }
+
+  /**
+   * Releases the buffers and the compressor.
+   */
+  @TearDown
+  public void tearDown() {
+    uncompressed.release();
+    compressed.release();
+    out.release();
+    compressor.dispose();
+  }
+
+  @Benchmark
+  public ByteBuf deflate() throws DataFormatException {
+    uncompressed.readerIndex(0);
+    out.clear();
+    compressor.deflate(uncompressed, out);
+    return out;
+  }
+
+  @Benchmark
+  public ByteBuf inflate() throws DataFormatException {
+    compressed.readerIndex(0);
+    out.clear();
+    compressor.inflate(compressed, out);
+    return out;
+  }
+
+  @Benchmark
+  public ByteBuf inflateKnownSize() throws DataFormatException {
+    compressed.readerIndex(0);
+    out.clear();
+    compressor.inflate(compressed, out, size);
+    return out;
+  }
+}
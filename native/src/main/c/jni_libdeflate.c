@@ -0,0 +1,108 @@
+#include <jni.h>
+#include <stdbool.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <libdeflate.h>
+#include "jni_util.h"
+
+// Keep in sync with NativeLibdeflate.INSUFFICIENT_SPACE.
+#define INSUFFICIENT_SPACE -1
+
+JNIEXPORT jlong JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_compressorInit(JNIEnv *env,
+    jobject obj,
+    jint level)
+{
+    struct libdeflate_compressor *compressor = libdeflate_alloc_compressor(level);
+    if (compressor == NULL) {
+        // libdeflate does not tell us why, but the level has already been checked in Java.
+        throwException(env, "java/lang/OutOfMemoryError", "libdeflate allocate compressor");
+        return 0;
+    }
+    return (jlong) compressor;
+}
+
+JNIEXPORT void JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_compressorFree(JNIEnv *env,
+    jobject obj,
+    jlong ctx)
+{
+    libdeflate_free_compressor((struct libdeflate_compressor *) ctx);
+}
+
+JNIEXPORT jint JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_compressBound(JNIEnv *env,
+    jobject obj,
+    jlong ctx,
+    jint sourceLength)
+{
+    return (jint) libdeflate_zlib_compress_bound((struct libdeflate_compressor *) ctx,
+        sourceLength);
+}
+
+JNIEXPORT jint JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_compress(JNIEnv *env,
+    jobject obj,
+    jlong ctx,
+    jlong sourceAddress,
+    jint sourceLength,
+    jlong destinationAddress,
+    jint destinationLength)
+{
+    // Returns 0 if the compressed data does not fit in the destination.
+    return (jint) libdeflate_zlib_compress((struct libdeflate_compressor *) ctx,
+        (void *) sourceAddress, sourceLength, (void *) destinationAddress, destinationLength);
+}
+
+JNIEXPORT jlong JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_decompressorInit(JNIEnv *env,
+    jobject obj)
+{
+    struct libdeflate_decompressor *decompressor = libdeflate_alloc_decompressor();
+    if (decompressor == NULL) {
+        throwException(env, "java/lang/OutOfMemoryError", "libdeflate allocate decompressor");
+        return 0;
+    }
+    return (jlong) decompressor;
+}
+
+JNIEXPORT void JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_decompressorFree(JNIEnv *env,
+    jobject obj,
+    jlong ctx)
+{
+    libdeflate_free_decompressor((struct libdeflate_decompressor *) ctx);
+}
+
+JNIEXPORT jint JNICALL
+Java_com_velocitypowered_natives_compression_NativeLibdeflate_decompress(JNIEnv *env,
+    jobject obj,
+    jlong ctx,
+    jlong sourceAddress,
+    jint sourceLength,
+    jlong destinationAddress,
+    jint destinationLength,
+    jboolean exactLength)
+{
+    size_t produced = destinationLength;
+    // If we know exactly how large the result is, libdeflate can check that for us.
+    enum libdeflate_result result = libdeflate_zlib_decompress(
+        (struct libdeflate_decompressor *) ctx, (void *) sourceAddress, sourceLength,
+        (void *) destinationAddress, destinationLength, exactLength ? NULL : &produced);
+
+    switch (result) {
+        case LIBDEFLATE_SUCCESS:
+            return (jint) produced;
+        case LIBDEFLATE_INSUFFICIENT_SPACE:
+            return INSUFFICIENT_SPACE;
+        case LIBDEFLATE_SHORT_OUTPUT: {
+            char message[64];
+            snprintf(message, 64, "decompressed data is shorter than %d bytes", destinationLength);
+            throwException(env, "java/util/zip/DataFormatException", message);
+            return 0;
+        }
+        default:
+            throwException(env, "java/util/zip/DataFormatException", "libdeflate bad data");
+            return 0;
+    }
+}
@@ -0,0 +1,213 @@
+package com.velocitypowered.natives.compression;
+
+import static com.velocitypowered.natives.util.NativeConstants.ZLIB_BUFFER_SIZE;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses using {@link Inflater} and {@link Deflater}, like
+ * {@link JavaVelocityCompressor}, but uses the {@link ByteBuffer} methods they have on Java 11 and
+ * above to read and write buffers directly, without copying through intermediate arrays. Both
+ * heap and direct buffers are handled in place.
+ *
+ * <p>Velocity still has to run on Java 8, so those methods are found at runtime. Use
+ * {@link #isSupported()} to check whether they were.</p>
+ */
+public class Java11VelocityCompressor implements VelocityCompressor {
+
+  public static final VelocityCompressorFactory FACTORY = Java11VelocityCompressor::new;
+
+  private static final boolean SUPPORTED;
+  private static final MethodHandle INFLATER_SET_INPUT;
+  private static final MethodHandle INFLATER_INFLATE;
+  private static final MethodHandle DEFLATER_SET_INPUT;
+  private static final MethodHandle DEFLATER_DEFLATE;
+
+  static {
+    MethodType setInput = MethodType.methodType(void.class, ByteBuffer.class);
+    MethodType process = MethodType.methodType(int.class, ByteBuffer.class);
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    boolean supported;
+    MethodHandle inflaterSetInput;
+    MethodHandle inflaterInflate;
+    MethodHandle deflaterSetInput;
+    MethodHandle deflaterDeflate;
+    try {
+      inflaterSetInput = lookup.findVirtual(Inflater.class, "setInput", setInput);
+      inflaterInflate = lookup.findVirtual(Inflater.class, "inflate", process);
+      deflaterSetInput = lookup.findVirtual(Deflater.class, "setInput", setInput);
+      deflaterDeflate = lookup.findVirtual(Deflater.class, "deflate", process);
+      supported = true;
+    } catch (ReflectiveOperationException e) {
+      // We're on Java 8, 9 or 10.
+      inflaterSetInput = unsupported(setInput.insertParameterTypes(0, Inflater.class));
+      inflaterInflate = unsupported(process.insertParameterTypes(0, Inflater.class));
+      deflaterSetInput = unsupported(setInput.insertParameterTypes(0, Deflater.class));
+      deflaterDeflate = unsupported(process.insertParameterTypes(0, Deflater.class));
+      supported = false;
+    }
+    SUPPORTED = supported;
+    INFLATER_SET_INPUT = inflaterSetInput;
+    INFLATER_INFLATE = inflaterInflate;
+    DEFLATER_SET_INPUT = deflaterSetInput;
+    DEFLATER_DEFLATE = deflaterDeflate;
+  }
+
+  private static MethodHandle unsupported(MethodType type) {
+    MethodHandle thrower = MethodHandles.throwException(type.returnType(),
+        UnsupportedOperationException.class)
+        .bindTo(new UnsupportedOperationException("Requires Java 11"));
+    return MethodHandles.dropArguments(thrower, 0, type.parameterList());
+  }
+
+  /**
+   * Determines whether this compressor can be used on the running JVM.
+   * @return whether the JVM is Java 11 or above
+   */
+  public static boolean isSupported() {
+    return SUPPORTED;
+  }
+
+  private final Deflater deflater;
+  private final Inflater inflater;
+  private boolean disposed = false;
+
+  private Java11VelocityCompressor(int level) {
+    Preconditions.checkState(SUPPORTED, "Java 11 or above is required");
+    this.deflater = new Deflater(level);
+    this.inflater = new Inflater();
+  }
+
+  @Override
+  public void inflate(ByteBuf source, ByteBuf destination) throws DataFormatException {
+    ensureNotDisposed();
+
+    inflaterSetInput(source.nioBuffer());
+    try {
+      while (!inflater.finished()) {
+        if (!destination.isWritable()) {
+          destination.ensureWritable(ZLIB_BUFFER_SIZE);
+        }
+        int produced = inflaterInflate(writableNioBuffer(destination));
+        if (produced == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new DataFormatException("Compressed data is truncated");
+        }
+        destination.writerIndex(destination.writerIndex() + produced);
+      }
+      source.skipBytes(source.readableBytes() - inflater.getRemaining());
+    } finally {
+      inflater.reset();
+    }
+  }
+
+  @Override
+  public void inflate(ByteBuf source, ByteBuf destination, int uncompressedSize)
+      throws DataFormatException {
+    ensureNotDisposed();
+
+    inflaterSetInput(source.nioBuffer());
+    destination.ensureWritable(uncompressedSize);
+    try {
+      int produced = inflaterInflate(destination.nioBuffer(destination.writerIndex(),
+          uncompressedSize));
+      if (!inflater.finished()) {
+        throw new DataFormatException("Data did not decompress to " + uncompressedSize
+            + " bytes");
+      }
+      destination.writerIndex(destination.writerIndex() + produced);
+      source.skipBytes(source.readableBytes() - inflater.getRemaining());
+    } finally {
+      inflater.reset();
+    }
+  }
+
+  @Override
+  public void deflate(ByteBuf source, ByteBuf destination) throws DataFormatException {
+    ensureNotDisposed();
+
+    deflaterSetInput(source.nioBuffer());
+    deflater.finish();
+    try {
+      while (!deflater.finished()) {
+        if (!destination.isWritable()) {
+          destination.ensureWritable(ZLIB_BUFFER_SIZE);
+        }
+        int produced = deflaterDeflate(writableNioBuffer(destination));
+        destination.writerIndex(destination.writerIndex() + produced);
+      }
+      source.skipBytes(source.readableBytes());
+    } finally {
+      deflater.reset();
+    }
+  }
+
+  private static ByteBuffer writableNioBuffer(ByteBuf buf) {
+    return buf.nioBuffer(buf.writerIndex(), buf.writableBytes());
+  }
+
+  private void inflaterSetInput(ByteBuffer input) {
+    try {
+      INFLATER_SET_INPUT.invokeExact(inflater, input);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private int inflaterInflate(ByteBuffer output) throws DataFormatException {
+    try {
+      return (int) INFLATER_INFLATE.invokeExact(inflater, output);
+    } catch (DataFormatException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private void deflaterSetInput(ByteBuffer input) {
+    try {
+      DEFLATER_SET_INPUT.invokeExact(deflater, input);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private int deflaterDeflate(ByteBuffer output) {
+    try {
+      return (int) DEFLATER_DEFLATE.invokeExact(deflater, output);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    deflater.end();
+    inflater.end();
+  }
+
+  private void ensureNotDisposed() {
+    Preconditions.checkState(!disposed, "Object already disposed");
+  }
+
+  @Override
+  public boolean isNative() {
+    // The ByteBuffer methods work on heap and direct buffers alike, so there is no need to copy
+    // buffers into direct memory first.
+    return false;
+  }
+}
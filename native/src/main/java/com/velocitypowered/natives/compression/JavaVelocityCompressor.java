@@ -27,19 +27,56 @@ public class JavaVelocityCompressor implements VelocityCompressor {
   public void inflate(ByteBuf source, ByteBuf destination) throws DataFormatException {
     ensureNotDisposed();
 
-    if (source.hasArray()) {
-      inflater.setInput(source.array(), source.arrayOffset(), source.readableBytes());
-    } else {
-      byte[] inData = new byte[source.readableBytes()];
-      source.readBytes(inData);
-      inflater.setInput(inData);
+    setInflaterInput(source);
+    try {
+      while (!inflater.finished()) {
+        int produced;
+        if (destination.hasArray()) {
+          // Inflate straight into the destination, skipping the intermediate buffer.
+          if (!destination.isWritable()) {
+            destination.ensureWritable(ZLIB_BUFFER_SIZE);
+          }
+          produced = inflater.inflate(destination.array(),
+              destination.arrayOffset() + destination.writerIndex(), destination.writableBytes());
+          destination.writerIndex(destination.writerIndex() + produced);
+        } else {
+          produced = inflater.inflate(buf);
+          destination.writeBytes(buf, 0, produced);
+        }
+        if (produced == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new DataFormatException("Compressed data is truncated");
+        }
+      }
+      source.skipBytes(source.readableBytes() - inflater.getRemaining());
+    } finally {
+      inflater.reset();
+    }
+  }
+
+  @Override
+  public void inflate(ByteBuf source, ByteBuf destination, int uncompressedSize)
+      throws DataFormatException {
+    if (!destination.hasArray()) {
+      inflate(source, destination);
+      return;
     }
+    ensureNotDisposed();
 
-    while (!inflater.finished()) {
-      int read = inflater.inflate(buf);
-      destination.writeBytes(buf, 0, read);
+    setInflaterInput(source);
+    // Inflate straight into the destination, skipping the intermediate buffer.
+    destination.ensureWritable(uncompressedSize);
+    try {
+      int produced = inflater.inflate(destination.array(),
+          destination.arrayOffset() + destination.writerIndex(), uncompressedSize);
+      if (!inflater.finished()) {
+        throw new DataFormatException("Data did not decompress to " + uncompressedSize
+            + " bytes");
+      }
+      destination.writerIndex(destination.writerIndex() + produced);
+      source.skipBytes(source.readableBytes() - inflater.getRemaining());
+    } finally {
+      inflater.reset();
     }
-    inflater.reset();
   }
 
   @Override
@@ -47,18 +84,43 @@ public class JavaVelocityCompressor implements VelocityCompressor {
     ensureNotDisposed();
 
     if (source.hasArray()) {
-      deflater.setInput(source.array(), source.arrayOffset(), source.readableBytes());
+      deflater.setInput(source.array(), source.arrayOffset() + source.readerIndex(),
+          source.readableBytes());
     } else {
       byte[] inData = new byte[source.readableBytes()];
-      source.readBytes(inData);
+      source.getBytes(source.readerIndex(), inData);
       deflater.setInput(inData);
     }
     deflater.finish();
-    while (!deflater.finished()) {
-      int bytes = deflater.deflate(buf);
-      destination.writeBytes(buf, 0, bytes);
+    try {
+      while (!deflater.finished()) {
+        if (destination.hasArray()) {
+          if (!destination.isWritable()) {
+            destination.ensureWritable(ZLIB_BUFFER_SIZE);
+          }
+          int produced = deflater.deflate(destination.array(),
+              destination.arrayOffset() + destination.writerIndex(), destination.writableBytes());
+          destination.writerIndex(destination.writerIndex() + produced);
+        } else {
+          int produced = deflater.deflate(buf);
+          destination.writeBytes(buf, 0, produced);
+        }
+      }
+      source.skipBytes(source.readableBytes());
+    } finally {
+      deflater.reset();
+    }
+  }
+
+  private void setInflaterInput(ByteBuf source) {
+    if (source.hasArray()) {
+      inflater.setInput(source.array(), source.arrayOffset() + source.readerIndex(),
+          source.readableBytes());
+    } else {
+      byte[] inData = new byte[source.readableBytes()];
+      source.getBytes(source.readerIndex(), inData);
+      inflater.setInput(inData);
     }
-    deflater.reset();
   }
 
   @Override
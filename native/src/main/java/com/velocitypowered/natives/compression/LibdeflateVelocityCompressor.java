@@ -0,0 +1,112 @@
+package com.velocitypowered.natives.compression;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.util.zip.DataFormatException;
+
+/**
+ * Compresses and decompresses whole buffers at once using libdeflate. Every Minecraft packet is a
+ * complete zlib stream, so there is no need for zlib's streaming state, which libdeflate does away
+ * with in exchange for being considerably faster.
+ */
+public class LibdeflateVelocityCompressor implements VelocityCompressor {
+
+  public static final VelocityCompressorFactory FACTORY = LibdeflateVelocityCompressor::new;
+
+  // libdeflate does not have zlib's "default" level, so use the level zlib uses for it.
+  private static final int DEFAULT_LEVEL = 6;
+  private static final int MAXIMUM_LEVEL = 12;
+  // DEFLATE can not expand data by more than this, so larger sizes are always bogus.
+  private static final int MAXIMUM_DEFLATE_RATIO = 1032;
+
+  private final NativeLibdeflate libdeflate = new NativeLibdeflate();
+  private final long compressCtx;
+  private final long decompressCtx;
+  private boolean disposed = false;
+
+  private LibdeflateVelocityCompressor(int level) {
+    Preconditions.checkArgument(level >= -1 && level <= MAXIMUM_LEVEL,
+        "Invalid compression level %s", level);
+    this.compressCtx = libdeflate.compressorInit(level == -1 ? DEFAULT_LEVEL : level);
+    this.decompressCtx = libdeflate.decompressorInit();
+  }
+
+  @Override
+  public void inflate(ByteBuf source, ByteBuf destination) throws DataFormatException {
+    ensureNotDisposed();
+
+    // The decompressed size is not known, so keep growing the destination until it fits.
+    destination.ensureWritable(source.readableBytes() * 4);
+    while (true) {
+      int produced = libdeflate.decompress(decompressCtx,
+          source.memoryAddress() + source.readerIndex(), source.readableBytes(),
+          destination.memoryAddress() + destination.writerIndex(), destination.writableBytes(),
+          false);
+      if (produced != NativeLibdeflate.INSUFFICIENT_SPACE) {
+        source.skipBytes(source.readableBytes());
+        destination.writerIndex(destination.writerIndex() + produced);
+        return;
+      }
+      if (destination.writableBytes() >= destination.maxWritableBytes()) {
+        throw new DataFormatException("Decompressed data does not fit in the destination");
+      }
+      destination.ensureWritable(destination.writableBytes() * 2);
+    }
+  }
+
+  @Override
+  public void inflate(ByteBuf source, ByteBuf destination, int uncompressedSize)
+      throws DataFormatException {
+    ensureNotDisposed();
+    // Don't let a bogus size make us allocate more than the data could possibly inflate to.
+    if (uncompressedSize < 0
+        || (long) uncompressedSize > (long) source.readableBytes() * MAXIMUM_DEFLATE_RATIO) {
+      throw new DataFormatException("Invalid uncompressed size " + uncompressedSize);
+    }
+    destination.ensureWritable(uncompressedSize);
+
+    int produced = libdeflate.decompress(decompressCtx,
+        source.memoryAddress() + source.readerIndex(), source.readableBytes(),
+        destination.memoryAddress() + destination.writerIndex(), uncompressedSize, true);
+    if (produced == NativeLibdeflate.INSUFFICIENT_SPACE) {
+      throw new DataFormatException("Decompressed data is larger than " + uncompressedSize
+          + " bytes");
+    }
+    source.skipBytes(source.readableBytes());
+    destination.writerIndex(destination.writerIndex() + produced);
+  }
+
+  @Override
+  public void deflate(ByteBuf source, ByteBuf destination) throws DataFormatException {
+    ensureNotDisposed();
+
+    // libdeflate compresses in one go, so make sure even the worst case fits.
+    destination.ensureWritable(libdeflate.compressBound(compressCtx, source.readableBytes()));
+    int produced = libdeflate.compress(compressCtx,
+        source.memoryAddress() + source.readerIndex(), source.readableBytes(),
+        destination.memoryAddress() + destination.writerIndex(), destination.writableBytes());
+    if (produced == 0) {
+      throw new DataFormatException("libdeflate could not compress the data");
+    }
+    source.skipBytes(source.readableBytes());
+    destination.writerIndex(destination.writerIndex() + produced);
+  }
+
+  private void ensureNotDisposed() {
+    Preconditions.checkState(!disposed, "Object already disposed");
+  }
+
+  @Override
+  public void dispose() {
+    if (!disposed) {
+      libdeflate.compressorFree(compressCtx);
+      libdeflate.decompressorFree(decompressCtx);
+    }
+    disposed = true;
+  }
+
+  @Override
+  public boolean isNative() {
+    return true;
+  }
+}
@@ -0,0 +1,29 @@
+package com.velocitypowered.natives.compression;
+
+/**
+ * Represents a native interface for libdeflate's whole-buffer zlib functions.
+ */
+class NativeLibdeflate {
+
+  /**
+   * Returned by {@link #decompress(long, long, int, long, int, boolean)} if the destination is too
+   * small to hold the decompressed data.
+   */
+  static final int INSUFFICIENT_SPACE = -1;
+
+  native long compressorInit(int level);
+
+  native void compressorFree(long ctx);
+
+  native int compressBound(long ctx, int sourceLength);
+
+  native int compress(long ctx, long sourceAddress, int sourceLength, long destinationAddress,
+      int destinationLength);
+
+  native long decompressorInit();
+
+  native void decompressorFree(long ctx);
+
+  native int decompress(long ctx, long sourceAddress, int sourceLength, long destinationAddress,
+      int destinationLength, boolean exactLength);
+}
@@ -43,6 +43,36 @@ public class NativeVelocityCompressor implements VelocityCompressor {
     inflate.finished = false;
   }
 
+  @Override
+  public void inflate(ByteBuf source, ByteBuf destination, int uncompressedSize)
+      throws DataFormatException {
+    ensureNotDisposed();
+    source.memoryAddress();
+    destination.memoryAddress();
+
+    // Make room for everything up front, so that the destination never has to be reallocated.
+    destination.ensureWritable(uncompressedSize);
+    int limit = destination.writerIndex() + uncompressedSize;
+    try {
+      while (!inflate.finished && source.isReadable()) {
+        inflate.consumed = 0;
+        int produced = inflate.process(inflateCtx, source.memoryAddress() + source.readerIndex(),
+            source.readableBytes(), destination.memoryAddress() + destination.writerIndex(),
+            limit - destination.writerIndex());
+        if (produced == 0 && inflate.consumed == 0) {
+          throw new DataFormatException("Decompressed data is larger than " + uncompressedSize
+              + " bytes");
+        }
+        source.readerIndex(source.readerIndex() + inflate.consumed);
+        destination.writerIndex(destination.writerIndex() + produced);
+      }
+    } finally {
+      inflate.reset(inflateCtx);
+      inflate.consumed = 0;
+      inflate.finished = false;
+    }
+  }
+
   @Override
   public void deflate(ByteBuf source, ByteBuf destination) throws DataFormatException {
     ensureNotDisposed();
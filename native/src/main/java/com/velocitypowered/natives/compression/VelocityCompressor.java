@@ -11,5 +11,20 @@ import java.util.zip.DataFormatException;
 public interface VelocityCompressor extends Disposable, Native {
   void inflate(ByteBuf source, ByteBuf destination) throws DataFormatException;
 
+  /**
+   * Inflates {@code source} into {@code destination}, knowing how large the result will be.
+   * Implementations that decompress whole buffers at once can use this to skip guessing the size
+   * of the result.
+   *
+   * @param source the compressed data
+   * @param destination the buffer to write the decompressed data to
+   * @param uncompressedSize the expected size of the decompressed data
+   * @throws DataFormatException if the data is invalid
+   */
+  default void inflate(ByteBuf source, ByteBuf destination, int uncompressedSize)
+      throws DataFormatException {
+    inflate(source, destination);
+  }
+
   void deflate(ByteBuf source, ByteBuf destination) throws DataFormatException;
 }
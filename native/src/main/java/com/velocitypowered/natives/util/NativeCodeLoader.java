@@ -7,9 +7,11 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class NativeCodeLoader<T> implements Supplier<T> {
 
+  private final List<Variant<T>> variants;
   private final Variant<T> selected;
 
   NativeCodeLoader(List<Variant<T>> variants) {
+    this.variants = variants;
     this.selected = getVariant(variants);
   }
 
@@ -33,6 +35,25 @@ public final class NativeCodeLoader<T> implements Supplier<T> {
     return selected.name;
   }
 
+  /**
+   * Sets up the first variant whose name starts with the specified prefix, even if another variant
+   * was selected, and returns it. This is meant for comparing variants, for example in benchmarks.
+   *
+   * @param namePrefix the start of the variant's name
+   * @return the variant, or {@code null} if there is no such variant or it could not be set up
+   */
+  public @Nullable T getVariant(String namePrefix) {
+    for (Variant<T> variant : variants) {
+      if (variant.name.startsWith(namePrefix)) {
+        T got = variant.get();
+        if (got != null) {
+          return got;
+        }
+      }
+    }
+    return null;
+  }
+
   static class Variant<T> {
 
     private Status status;
@@ -58,7 +79,9 @@ public final class NativeCodeLoader<T> implements Supplier<T> {
         try {
           setup.run();
           status = Status.SETUP;
-        } catch (Exception e) {
+        } catch (Exception | UnsatisfiedLinkError e) {
+          // A library that links against one that is missing on this host fails to load with
+          // an UnsatisfiedLinkError, in which case we fall back to the next variant.
           status = Status.SETUP_FAILURE;
           return null;
         }
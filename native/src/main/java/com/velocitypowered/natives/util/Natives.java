@@ -2,7 +2,9 @@ package com.velocitypowered.natives.util;
 
 import com.google.common.collect.ImmutableList;
 import com.velocitypowered.natives.NativeSetupException;
+import com.velocitypowered.natives.compression.Java11VelocityCompressor;
 import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.compression.LibdeflateVelocityCompressor;
 import com.velocitypowered.natives.compression.NativeVelocityCompressor;
 import com.velocitypowered.natives.compression.VelocityCompressorFactory;
 import com.velocitypowered.natives.encryption.JavaVelocityCipher;
@@ -46,12 +48,20 @@ public class Natives {
 
   public static final NativeCodeLoader<VelocityCompressorFactory> compress = new NativeCodeLoader<>(
       ImmutableList.of(
+          new NativeCodeLoader.Variant<>(NativeConstraints.MACOS,
+              copyAndLoadNative("/macosx/velocity-compress-libdeflate.dylib"),
+              "libdeflate (macOS)", LibdeflateVelocityCompressor.FACTORY),
+          new NativeCodeLoader.Variant<>(NativeConstraints.LINUX,
+              copyAndLoadNative("/linux_x64/velocity-compress-libdeflate.so"),
+              "libdeflate (Linux amd64)", LibdeflateVelocityCompressor.FACTORY),
           new NativeCodeLoader.Variant<>(NativeConstraints.MACOS,
               copyAndLoadNative("/macosx/velocity-compress.dylib"), "native (macOS)",
               NativeVelocityCompressor.FACTORY),
           new NativeCodeLoader.Variant<>(NativeConstraints.LINUX,
               copyAndLoadNative("/linux_x64/velocity-compress.so"), "native (Linux amd64)",
               NativeVelocityCompressor.FACTORY),
+          new NativeCodeLoader.Variant<>(Java11VelocityCompressor::isSupported, () -> {
+          }, "Java 11", Java11VelocityCompressor.FACTORY),
           new NativeCodeLoader.Variant<>(NativeCodeLoader.ALWAYS, () -> {
           }, "Java", JavaVelocityCompressor.FACTORY)
       )
@@ -1,8 +1,10 @@
 package com.velocitypowered.natives.compression;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.junit.jupiter.api.condition.OS.LINUX;
 import static org.junit.jupiter.api.condition.OS.MAC;
 
@@ -46,6 +48,74 @@ class VelocityCompressorTest {
     check(compressor, () -> Unpooled.directBuffer(TEST_DATA.length + 32));
   }
 
+  @Test
+  @EnabledOnOs({MAC, LINUX})
+  void libdeflateIntegrityCheck() throws DataFormatException {
+    assumeTrue(Natives.compress.getLoadedVariant().startsWith("libdeflate"),
+        "libdeflate is not available");
+    check(Natives.compress.get().create(Deflater.DEFAULT_COMPRESSION),
+        () -> Unpooled.directBuffer(TEST_DATA.length + 32));
+    checkKnownSize(Natives.compress.get().create(Deflater.DEFAULT_COMPRESSION),
+        () -> Unpooled.directBuffer(TEST_DATA.length + 32));
+  }
+
+  @Test
+  @EnabledOnOs({MAC, LINUX})
+  void libdeflateRejectsWrongSize() throws DataFormatException {
+    assumeTrue(Natives.compress.getLoadedVariant().startsWith("libdeflate"),
+        "libdeflate is not available");
+    VelocityCompressor compressor = Natives.compress.get().create(Deflater.DEFAULT_COMPRESSION);
+    ByteBuf source = Unpooled.directBuffer().writeBytes(TEST_DATA);
+    ByteBuf dest = Unpooled.directBuffer();
+    ByteBuf decompressed = Unpooled.directBuffer();
+    try {
+      compressor.deflate(source, dest);
+      assertThrows(DataFormatException.class,
+          () -> compressor.inflate(dest, decompressed, TEST_DATA.length - 1));
+      assertThrows(DataFormatException.class,
+          () -> compressor.inflate(dest, decompressed, TEST_DATA.length + 1));
+    } finally {
+      source.release();
+      dest.release();
+      decompressed.release();
+      compressor.dispose();
+    }
+  }
+
+  @Test
+  void javaIntegrityCheckKnownSize() throws DataFormatException {
+    VelocityCompressor compressor = JavaVelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION);
+    checkKnownSize(compressor, () -> Unpooled.directBuffer(TEST_DATA.length + 32));
+  }
+
+  @Test
+  @EnabledOnOs({MAC, LINUX})
+  void nativeIntegrityCheckKnownSize() throws DataFormatException {
+    VelocityCompressor compressor = Natives.compress.get().create(Deflater.DEFAULT_COMPRESSION);
+    checkKnownSize(compressor, () -> Unpooled.directBuffer(TEST_DATA.length + 32));
+  }
+
+  @Test
+  @EnabledOnOs({MAC, LINUX})
+  void nativeRejectsLargerThanKnownSize() throws DataFormatException {
+    checkRejectsLargerThanKnownSize(Natives.compress.get().create(Deflater.DEFAULT_COMPRESSION),
+        Unpooled::directBuffer);
+  }
+
+  @Test
+  void javaIntegrityCheckKnownSizeHeap() throws DataFormatException {
+    VelocityCompressor compressor = JavaVelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION);
+    checkKnownSize(compressor, () -> Unpooled.buffer(TEST_DATA.length + 32));
+  }
+
+  @Test
+  void javaRejectsLargerThanKnownSize() throws DataFormatException {
+    checkRejectsLargerThanKnownSize(JavaVelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION), Unpooled::buffer);
+  }
+
   @Test
   void javaIntegrityCheckDirect() throws DataFormatException {
     VelocityCompressor compressor = JavaVelocityCompressor.FACTORY
@@ -60,6 +130,58 @@ class VelocityCompressorTest {
     check(compressor, () -> Unpooled.buffer(TEST_DATA.length + 32));
   }
 
+  @Test
+  void javaRespectsReaderIndexHeap() throws DataFormatException {
+    VelocityCompressor compressor = JavaVelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION);
+    ByteBuf source = Unpooled.buffer();
+    ByteBuf dest = Unpooled.buffer();
+    ByteBuf decompressed = Unpooled.buffer();
+    try {
+      source.writeByte(42);
+      source.writeBytes(TEST_DATA);
+      source.skipBytes(1);
+      dest.writeByte(42);
+      compressor.deflate(source, dest);
+      assertFalse(source.isReadable());
+
+      dest.skipBytes(1);
+      compressor.inflate(dest, decompressed);
+      assertFalse(dest.isReadable());
+      assertTrue(ByteBufUtil.equals(Unpooled.wrappedBuffer(TEST_DATA), decompressed));
+    } finally {
+      source.release();
+      dest.release();
+      decompressed.release();
+      compressor.dispose();
+    }
+  }
+
+  @Test
+  void java11IntegrityCheckDirect() throws DataFormatException {
+    assumeTrue(Java11VelocityCompressor.isSupported(), "Java 11 is required");
+    check(Java11VelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION),
+        () -> Unpooled.directBuffer(TEST_DATA.length + 32));
+    checkKnownSize(Java11VelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION),
+        () -> Unpooled.directBuffer(TEST_DATA.length + 32));
+  }
+
+  @Test
+  void java11IntegrityCheckHeap() throws DataFormatException {
+    assumeTrue(Java11VelocityCompressor.isSupported(), "Java 11 is required");
+    check(Java11VelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION),
+        () -> Unpooled.buffer(TEST_DATA.length + 32));
+    checkKnownSize(Java11VelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION),
+        () -> Unpooled.buffer(TEST_DATA.length + 32));
+  }
+
+  @Test
+  void java11RejectsLargerThanKnownSize() throws DataFormatException {
+    assumeTrue(Java11VelocityCompressor.isSupported(), "Java 11 is required");
+    checkRejectsLargerThanKnownSize(Java11VelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION), Unpooled::directBuffer);
+  }
+
   private void check(VelocityCompressor compressor, Supplier<ByteBuf> bufSupplier)
       throws DataFormatException {
     ByteBuf source = bufSupplier.get();
@@ -80,4 +202,45 @@ class VelocityCompressorTest {
       compressor.dispose();
     }
   }
-}
\ No newline at end of file
+
+  private void checkKnownSize(VelocityCompressor compressor, Supplier<ByteBuf> bufSupplier)
+      throws DataFormatException {
+    ByteBuf source = bufSupplier.get();
+    ByteBuf dest = bufSupplier.get();
+    ByteBuf decompressed = bufSupplier.get();
+
+    source.writeBytes(TEST_DATA);
+
+    try {
+      compressor.deflate(source, dest);
+      compressor.inflate(dest, decompressed, TEST_DATA.length);
+      source.readerIndex(0);
+      assertTrue(ByteBufUtil.equals(source, decompressed));
+    } finally {
+      source.release();
+      dest.release();
+      decompressed.release();
+      compressor.dispose();
+    }
+  }
+
+  private void checkRejectsLargerThanKnownSize(VelocityCompressor compressor,
+      Supplier<ByteBuf> bufSupplier) throws DataFormatException {
+    ByteBuf source = bufSupplier.get();
+    ByteBuf dest = bufSupplier.get();
+    ByteBuf decompressed = bufSupplier.get();
+
+    source.writeBytes(TEST_DATA);
+
+    try {
+      compressor.deflate(source, dest);
+      assertThrows(DataFormatException.class,
+          () -> compressor.inflate(dest, decompressed, TEST_DATA.length / 2));
+    } finally {
+      source.release();
+      dest.release();
+      decompressed.release();
+      compressor.dispose();
+    }
+  }
+}
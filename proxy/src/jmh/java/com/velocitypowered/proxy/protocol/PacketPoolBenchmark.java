@@ -0,0 +1,95 @@
+package com.velocitypowered.proxy.protocol;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares decoding the most frequent packets into new objects with decoding them into pooled
+ * ones. The allocation rate reported by the {@code gc} profiler shows the difference in garbage
+ * produced per packet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PacketPoolBenchmark {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+
+  private ByteBuf keepAlive;
+  private ByteBuf chat;
+
+  /**
+   * Encodes the packets that will be decoded.
+   */
+  @Setup
+  public void setup() {
+    keepAlive = Unpooled.buffer();
+    KeepAlive keepAlivePacket = new KeepAlive();
+    keepAlivePacket.setRandomId(System.nanoTime());
+    keepAlivePacket.encode(keepAlive, Direction.SERVERBOUND, VERSION);
+
+    chat = Unpooled.buffer();
+    Chat.createServerbound("hello").encode(chat, Direction.SERVERBOUND, VERSION);
+  }
+
+  /**
+   * Decodes a keep alive into a new object.
+   */
+  @Benchmark
+  public void keepAliveNew(Blackhole bh) {
+    KeepAlive packet = new KeepAlive();
+    packet.decode(keepAlive.duplicate(), Direction.SERVERBOUND, VERSION);
+    bh.consume(packet.getRandomId());
+  }
+
+  /**
+   * Decodes a keep alive into a pooled object.
+   */
+  @Benchmark
+  public void keepAlivePooled(Blackhole bh) {
+    KeepAlive packet = KeepAlive.newInstance();
+    packet.decode(keepAlive.duplicate(), Direction.SERVERBOUND, VERSION);
+    bh.consume(packet.getRandomId());
+    packet.recycle();
+  }
+
+  /**
+   * Decodes a chat message into a new object.
+   */
+  @Benchmark
+  public void chatNew(Blackhole bh) {
+    Chat packet = new Chat();
+    packet.decode(chat.duplicate(), Direction.SERVERBOUND, VERSION);
+    bh.consume(packet.getMessage());
+  }
+
+  /**
+   * Decodes a chat message into a pooled object.
+   */
+  @Benchmark
+  public void chatPooled(Blackhole bh) {
+    Chat packet = Chat.newInstance();
+    packet.decode(chat.duplicate(), Direction.SERVERBOUND, VERSION);
+    bh.consume(packet.getMessage());
+    packet.recycle();
+  }
+}
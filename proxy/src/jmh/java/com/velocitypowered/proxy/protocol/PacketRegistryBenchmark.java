@@ -0,0 +1,108 @@
+package com.velocitypowered.proxy.protocol;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
+import com.velocitypowered.proxy.protocol.StateRegistry.PacketRegistry.ProtocolRegistry;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import com.velocitypowered.proxy.protocol.packet.PluginMessage;
+import com.velocitypowered.proxy.protocol.packet.TabCompleteRequest;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures packet registry lookups against the hash maps the registry used to be built on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PacketRegistryBenchmark {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MAXIMUM_VERSION;
+
+  private ProtocolRegistry registry;
+  private MinecraftPacket[] packets;
+  private int[] ids;
+
+  private IntObjectMap<Supplier<MinecraftPacket>> mapIdToSupplier;
+  private Object2IntMap<Class<? extends MinecraftPacket>> mapClassToId;
+
+  /**
+   * Builds the registry and the equivalent hash maps.
+   */
+  @Setup
+  public void setup() {
+    registry = Direction.SERVERBOUND.getProtocolRegistry(StateRegistry.PLAY, VERSION);
+    packets = new MinecraftPacket[]{new KeepAlive(), new Chat(), new PluginMessage(),
+        new TabCompleteRequest()};
+    ids = new int[packets.length];
+
+    mapIdToSupplier = new IntObjectHashMap<>(16, 0.5f);
+    mapClassToId = new Object2IntOpenHashMap<>(16, 0.5f);
+    mapClassToId.defaultReturnValue(Integer.MIN_VALUE);
+    for (int i = 0; i < packets.length; i++) {
+      int id = registry.getPacketId(packets[i]);
+      ids[i] = id;
+      mapIdToSupplier.put(id, () -> registry.createPacket(id));
+      mapClassToId.put(packets[i].getClass(), id);
+    }
+  }
+
+  /**
+   * Looks up the ID of each packet in the registry.
+   */
+  @Benchmark
+  public void packetIdArray(Blackhole bh) {
+    for (MinecraftPacket packet : packets) {
+      bh.consume(registry.getPacketId(packet));
+    }
+  }
+
+  /**
+   * Looks up the ID of each packet in a hash map.
+   */
+  @Benchmark
+  public void packetIdMap(Blackhole bh) {
+    for (MinecraftPacket packet : packets) {
+      bh.consume(mapClassToId.getInt(packet.getClass()));
+    }
+  }
+
+  /**
+   * Looks up the supplier of each packet ID in the registry.
+   */
+  @Benchmark
+  public void containsPacketArray(Blackhole bh) {
+    for (int id : ids) {
+      bh.consume(registry.containsPacket(id));
+    }
+  }
+
+  /**
+   * Looks up the supplier of each packet ID in a hash map.
+   */
+  @Benchmark
+  public void containsPacketMap(Blackhole bh) {
+    for (int id : ids) {
+      bh.consume(mapIdToSupplier.get(id) != null);
+    }
+  }
+}
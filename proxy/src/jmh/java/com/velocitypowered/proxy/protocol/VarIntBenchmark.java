@@ -0,0 +1,158 @@
+package com.velocitypowered.proxy.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the VarInt codec in {@link ProtocolUtils} with the byte-at-a-time loops it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class VarIntBenchmark {
+
+  private static final int VALUES = 1024;
+
+  /**
+   * The distribution of values: {@code small} values fit in one byte (packet IDs), {@code medium}
+   * values in two or three (lengths), {@code large} values need four or five, and {@code mixed}
+   * draws from all of them.
+   */
+  @Param({"small", "medium", "large", "mixed"})
+  public String distribution;
+
+  private int[] values;
+  private ByteBuf encoded;
+  private ByteBuf scratch;
+
+  /**
+   * Generates the values and encodes them for the read benchmarks.
+   */
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(1);
+    values = new int[VALUES];
+    for (int i = 0; i < VALUES; i++) {
+      switch (distribution) {
+        case "small":
+          values[i] = random.nextInt(1 << 7);
+          break;
+        case "medium":
+          values[i] = random.nextInt(1 << 7, 1 << 21);
+          break;
+        case "large":
+          values[i] = random.nextInt(1 << 21, Integer.MAX_VALUE);
+          break;
+        case "mixed":
+          values[i] = random.nextInt() >>> random.nextInt(32);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown distribution " + distribution);
+      }
+    }
+
+    encoded = PooledByteBufAllocator.DEFAULT.directBuffer(VALUES * 5);
+    for (int value : values) {
+      ProtocolUtils.writeVarInt(encoded, value);
+    }
+    scratch = PooledByteBufAllocator.DEFAULT.directBuffer(VALUES * 5);
+  }
+
+  @TearDown
+  public void tearDown() {
+    encoded.release();
+    scratch.release();
+  }
+
+  /**
+   * Reads every value using the old implementation.
+   */
+  @Benchmark
+  public void readOld(Blackhole bh) {
+    ByteBuf buf = encoded.duplicate();
+    while (buf.isReadable()) {
+      bh.consume(oldReadVarInt(buf));
+    }
+  }
+
+  /**
+   * Reads every value using {@link ProtocolUtils#readVarInt(ByteBuf)}.
+   */
+  @Benchmark
+  public void readNew(Blackhole bh) {
+    ByteBuf buf = encoded.duplicate();
+    while (buf.isReadable()) {
+      bh.consume(ProtocolUtils.readVarInt(buf));
+    }
+  }
+
+  /**
+   * Writes every value using the old implementation.
+   */
+  @Benchmark
+  public ByteBuf writeOld() {
+    scratch.clear();
+    for (int value : values) {
+      oldWriteVarInt(scratch, value);
+    }
+    return scratch;
+  }
+
+  /**
+   * Writes every value using {@link ProtocolUtils#writeVarInt(ByteBuf, int)}.
+   */
+  @Benchmark
+  public ByteBuf writeNew() {
+    scratch.clear();
+    for (int value : values) {
+      ProtocolUtils.writeVarInt(scratch, value);
+    }
+    return scratch;
+  }
+
+  private static int oldReadVarInt(ByteBuf buf) {
+    int i = 0;
+    int j = 0;
+    while (true) {
+      int k = buf.readByte();
+      i |= (k & 0x7F) << j++ * 7;
+      if (j > 5) {
+        throw new RuntimeException("VarInt too big");
+      }
+      if ((k & 0x80) != 128) {
+        break;
+      }
+    }
+    return i;
+  }
+
+  private static void oldWriteVarInt(ByteBuf buf, int value) {
+    while (true) {
+      if ((value & 0xFFFFFF80) == 0) {
+        buf.writeByte(value);
+        return;
+      }
+
+      buf.writeByte(value & 0x7F | 0x80);
+      value >>>= 7;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link MinecraftVarintFrameDecoder} with the implementation it replaced, by decoding a
+ * stream of frames that arrives in reads of {@code readSize} bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class MinecraftVarintFrameDecoderBenchmark {
+
+  private static final int STREAM_SIZE = 1024 * 1024;
+
+  @Param({"16", "512", "32768"})
+  public int frameSize;
+
+  @Param({"1460", "65536"})
+  public int readSize;
+
+  private ByteBuf stream;
+  private EmbeddedChannel legacyChannel;
+  private EmbeddedChannel optimizedChannel;
+
+  /**
+   * Builds the stream of frames and the channels to decode them with.
+   */
+  @Setup
+  public void setup() {
+    stream = PooledByteBufAllocator.DEFAULT.directBuffer(STREAM_SIZE + frameSize + 5);
+    while (stream.readableBytes() < STREAM_SIZE) {
+      ProtocolUtils.writeVarInt(stream, frameSize);
+      stream.writeZero(frameSize);
+    }
+    legacyChannel = new EmbeddedChannel(new LegacyMinecraftVarintFrameDecoder());
+    optimizedChannel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+  }
+
+  /**
+   * Releases the stream and closes the channels.
+   */
+  @TearDown
+  public void tearDown() {
+    stream.release();
+    legacyChannel.finishAndReleaseAll();
+    optimizedChannel.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public int legacy() {
+    return decodeStream(legacyChannel);
+  }
+
+  @Benchmark
+  public int optimized() {
+    return decodeStream(optimizedChannel);
+  }
+
+  private int decodeStream(EmbeddedChannel channel) {
+    int frames = 0;
+    int length = stream.readableBytes();
+    for (int i = 0; i < length; i += readSize) {
+      channel.writeInbound(stream.retainedSlice(i, Math.min(readSize, length - i)));
+      ByteBuf frame;
+      while ((frame = channel.readInbound()) != null) {
+        frames++;
+        frame.release();
+      }
+    }
+    return frames;
+  }
+
+  /**
+   * The frame decoder as it was before it was rewritten.
+   */
+  static class LegacyMinecraftVarintFrameDecoder extends ByteToMessageDecoder {
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      if (!in.isReadable()) {
+        return;
+      }
+
+      int origReaderIndex = in.readerIndex();
+      for (int i = 0; i < 3; i++) {
+        if (!in.isReadable()) {
+          in.readerIndex(origReaderIndex);
+          return;
+        }
+
+        byte read = in.readByte();
+        if (read >= 0) {
+          in.readerIndex(origReaderIndex);
+          int packetLength = ProtocolUtils.readVarInt(in);
+          if (packetLength == 0) {
+            return;
+          }
+
+          if (in.readableBytes() < packetLength) {
+            in.readerIndex(origReaderIndex);
+            return;
+          }
+
+          out.add(in.readRetainedSlice(packetLength));
+          return;
+        }
+      }
+
+      throw new CorruptedFrameException("VarInt too big");
+    }
+  }
+}
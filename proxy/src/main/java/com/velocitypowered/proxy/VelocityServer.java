@@ -9,15 +9,19 @@ import com.velocitypowered.api.event.EventManager;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyReloadEvent;
 import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.plugin.PluginContainer;
 import com.velocitypowered.api.plugin.PluginManager;
 import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.PreparedPacket;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.util.Favicon;
 import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.api.util.MessagePosition;
 import com.velocitypowered.api.util.ProxyVersion;
+import com.velocitypowered.api.util.title.Title;
 import com.velocitypowered.proxy.command.ServerCommand;
 import com.velocitypowered.proxy.command.ShutdownCommand;
 import com.velocitypowered.proxy.command.VelocityCommand;
@@ -25,12 +29,14 @@ import com.velocitypowered.proxy.command.VelocityCommandManager;
 import com.velocitypowered.proxy.config.AnnotatedConfig;
 import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.connection.client.VelocityPreparedPacket;
 import com.velocitypowered.proxy.console.VelocityConsole;
 import com.velocitypowered.proxy.network.ConnectionManager;
 import com.velocitypowered.proxy.network.http.NettyHttpClient;
 import com.velocitypowered.proxy.plugin.VelocityEventManager;
 import com.velocitypowered.proxy.plugin.VelocityPluginManager;
-import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.packet.HeaderAndFooter;
 import com.velocitypowered.proxy.protocol.util.FaviconSerializer;
 import com.velocitypowered.proxy.protocol.util.GameProfileSerializer;
 import com.velocitypowered.proxy.scheduler.VelocityScheduler;
@@ -50,6 +56,7 @@ import java.nio.file.Paths;
 import java.security.KeyPair;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -57,6 +64,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import net.kyori.text.Component;
 import net.kyori.text.TextComponent;
 import net.kyori.text.serializer.GsonComponentSerializer;
@@ -75,7 +83,7 @@ public class VelocityServer implements ProxyServer {
       .registerTypeHierarchyAdapter(GameProfile.class, new GameProfileSerializer())
       .create();
 
-  private final ConnectionManager cm;
+  private @MonotonicNonNull ConnectionManager cm;
   private final ProxyOptions options;
   private @MonotonicNonNull VelocityConfiguration configuration;
   private @MonotonicNonNull NettyHttpClient httpClient;
@@ -99,7 +107,6 @@ public class VelocityServer implements ProxyServer {
     eventManager = new VelocityEventManager(pluginManager);
     scheduler = new VelocityScheduler(pluginManager);
     console = new VelocityConsole(this);
-    cm = new ConnectionManager(this);
     servers = new ServerMap(this);
     this.options = options;
   }
@@ -144,8 +151,6 @@ public class VelocityServer implements ProxyServer {
 
     serverKeyPair = EncryptionUtils.createRsaKeyPair(1024);
 
-    cm.logChannelInformation();
-
     // Initialize commands first
     commandManager.register(new VelocityCommand(this), "velocity");
     commandManager.register(new ServerCommand(this), "server");
@@ -170,6 +175,10 @@ public class VelocityServer implements ProxyServer {
       System.exit(1);
     }
 
+    // The connection manager is configured from velocity.toml.
+    cm = new ConnectionManager(this);
+    cm.logChannelInformation();
+
     for (Map.Entry<String, String> entry : configuration.getServers().entrySet()) {
       servers.register(new ServerInfo(entry.getKey(), AddressUtil.parseAddress(entry.getValue())));
     }
@@ -237,11 +246,11 @@ public class VelocityServer implements ProxyServer {
   }
 
   public Bootstrap initializeGenericBootstrap() {
-    return this.cm.createWorker();
+    return ensureInitialized(this.cm).createWorker();
   }
 
   public Bootstrap initializeGenericBootstrap(EventLoopGroup group) {
-    return this.cm.createWorker(group);
+    return ensureInitialized(this.cm).createWorker(group);
   }
 
   public boolean isShutdown() {
@@ -255,6 +264,7 @@ public class VelocityServer implements ProxyServer {
    * @throws IOException if we can't read {@code velocity.toml}
    */
   public boolean reloadConfiguration() throws IOException {
+    ConnectionManager cm = ensureInitialized(this.cm);
     Path configPath = Paths.get("velocity.toml");
     VelocityConfiguration newConfiguration = VelocityConfiguration.read(configPath);
 
@@ -314,18 +324,18 @@ public class VelocityServer implements ProxyServer {
 
     // If we have a new bind address, bind to it
     if (!configuration.getBind().equals(newConfiguration.getBind())) {
-      this.cm.bind(newConfiguration.getBind());
-      this.cm.close(configuration.getBind());
+      cm.bind(newConfiguration.getBind());
+      cm.close(configuration.getBind());
     }
 
     if (configuration.isQueryEnabled() && (!newConfiguration.isQueryEnabled()
         || newConfiguration.getQueryPort() != configuration.getQueryPort())) {
-      this.cm.close(new InetSocketAddress(
+      cm.close(new InetSocketAddress(
           configuration.getBind().getHostString(), configuration.getQueryPort()));
     }
 
     if (newConfiguration.isQueryEnabled()) {
-      this.cm.queryBind(newConfiguration.getBind().getHostString(),
+      cm.queryBind(newConfiguration.getBind().getHostString(),
           newConfiguration.getQueryPort());
     }
 
@@ -437,10 +447,35 @@ public class VelocityServer implements ProxyServer {
   @Override
   public void broadcast(Component component) {
     Preconditions.checkNotNull(component, "component");
-    Chat chat = Chat.createClientbound(component);
-    for (ConnectedPlayer player : connectionsByUuid.values()) {
-      player.getMinecraftConnection().write(chat);
-    }
+    prepareMessage(component, MessagePosition.CHAT).sendTo(connectionsByUuid.values());
+  }
+
+  @Override
+  public PreparedPacket prepareMessage(Component component, MessagePosition position) {
+    Preconditions.checkNotNull(component, "component");
+    Preconditions.checkNotNull(position, "position");
+    return prepare(version -> ImmutableList.of(
+        ConnectedPlayer.createMessagePacket(component, position, version)));
+  }
+
+  @Override
+  public PreparedPacket prepareTitle(Title title) {
+    Preconditions.checkNotNull(title, "title");
+    return prepare(version -> ConnectedPlayer.createTitlePackets(title, version));
+  }
+
+  @Override
+  public PreparedPacket prepareHeaderAndFooter(Component header, Component footer) {
+    Preconditions.checkNotNull(header, "header");
+    Preconditions.checkNotNull(footer, "footer");
+    HeaderAndFooter packet = HeaderAndFooter.create(header, footer);
+    return prepare(version -> ImmutableList.of(packet));
+  }
+
+  private PreparedPacket prepare(
+      Function<ProtocolVersion, List<? extends MinecraftPacket>> packetFactory) {
+    return new VelocityPreparedPacket(packetFactory,
+        ensureInitialized(configuration).getCompressionLevel());
   }
 
   @Override
@@ -11,6 +11,7 @@ import com.velocitypowered.api.plugin.PluginDescription;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.util.ProxyVersion;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.network.NetworkMetrics;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
@@ -41,6 +42,7 @@ public class VelocityCommand implements Command {
         .put("version", new Info(server))
         .put("plugins", new Plugins(server))
         .put("reload", new Reload(server))
+        .put("metrics", new Metrics())
         .build();
   }
 
@@ -264,4 +266,28 @@ public class VelocityCommand implements Command {
       return source.getPermissionValue("velocity.command.plugins") == Tristate.TRUE;
     }
   }
+
+  private static class Metrics implements Command {
+
+    @Override
+    public void execute(CommandSource source, String @NonNull [] args) {
+      if (args.length != 0) {
+        source.sendMessage(TextComponent.of("/velocity metrics", TextColor.RED));
+        return;
+      }
+
+      source.sendMessage(TextComponent.of("Network metrics:", TextColor.YELLOW));
+      for (Map.Entry<String, Object> metric : NetworkMetrics.snapshot().entrySet()) {
+        source.sendMessage(TextComponent.builder(metric.getKey() + ": ")
+            .color(TextColor.GRAY)
+            .append(TextComponent.of(String.valueOf(metric.getValue()), TextColor.WHITE))
+            .build());
+      }
+    }
+
+    @Override
+    public boolean hasPermission(CommandSource source, String @NonNull [] args) {
+      return source.getPermissionValue("velocity.command.metrics") == Tristate.TRUE;
+    }
+  }
 }
@@ -6,6 +6,7 @@ import com.google.common.collect.ImmutableMap;
 import com.moandjiezana.toml.Toml;
 import com.velocitypowered.api.proxy.config.ProxyConfig;
 import com.velocitypowered.api.util.Favicon;
+import com.velocitypowered.proxy.util.AddressRange;
 import com.velocitypowered.proxy.util.AddressUtil;
 import java.io.IOException;
 import java.io.Reader;
@@ -93,6 +94,9 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
   @Ignore
   private @Nullable Favicon favicon;
 
+  @Ignore
+  private List<AddressRange> proxyProtocolTrustedRanges = ImmutableList.of();
+
   private VelocityConfiguration(Servers servers, ForcedHosts forcedHosts, Advanced advanced,
       Query query) {
     this.servers = servers;
@@ -225,6 +229,55 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       valid = false;
     }
 
+    if (advanced.writeBufferLowWaterMark <= 0
+        || advanced.writeBufferHighWaterMark < advanced.writeBufferLowWaterMark) {
+      logger.error("Invalid write buffer water marks (low {}, high {}). Both must be positive, and "
+          + "the high water mark must not be lower than the low water mark.",
+          advanced.writeBufferLowWaterMark, advanced.writeBufferHighWaterMark);
+      valid = false;
+    }
+
+    if (advanced.listenerCount < 1) {
+      logger.error("Invalid listener count {}", advanced.listenerCount);
+      valid = false;
+    }
+
+    if (advanced.workerThreads < 0) {
+      logger.error("Invalid worker thread count {}", advanced.workerThreads);
+      valid = false;
+    }
+
+    if (advanced.socketSendBufferSize < 0 || advanced.socketReceiveBufferSize < 0) {
+      logger.error("Invalid socket buffer sizes (send {}, receive {})",
+          advanced.socketSendBufferSize, advanced.socketReceiveBufferSize);
+      valid = false;
+    }
+
+    if (advanced.tcpFastOpen < 0) {
+      logger.error("Invalid TCP Fast Open queue length {}", advanced.tcpFastOpen);
+      valid = false;
+    }
+
+    if (!advanced.epollMode.equalsIgnoreCase("edge-triggered")
+        && !advanced.epollMode.equalsIgnoreCase("level-triggered")) {
+      logger.error("Invalid epoll mode {}", advanced.epollMode);
+      valid = false;
+    } else if (advanced.spliceRelay && !advanced.isEpollLevelTriggered()) {
+      logger.warn("splice-relay is enabled, but will not be used because epoll-mode is not "
+          + "level-triggered.");
+    }
+
+    ImmutableList.Builder<AddressRange> trustedRanges = ImmutableList.builder();
+    for (String source : advanced.proxyProtocolTrustedSources) {
+      try {
+        trustedRanges.add(AddressRange.parse(source));
+      } catch (IllegalArgumentException e) {
+        logger.error("Invalid proxy-protocol-trusted-sources entry {}", source);
+        valid = false;
+      }
+    }
+    this.proxyProtocolTrustedRanges = trustedRanges.build();
+
     loadFavicon();
 
     return valid;
@@ -318,6 +371,10 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     return advanced.getCompressionLevel();
   }
 
+  public boolean isAdaptiveCompression() {
+    return advanced.isAdaptiveCompression();
+  }
+
   public int getLoginRatelimit() {
     return advanced.getLoginRatelimit();
   }
@@ -342,6 +399,50 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     return advanced.isProxyProtocol();
   }
 
+  public List<AddressRange> getProxyProtocolTrustedSources() {
+    return proxyProtocolTrustedRanges;
+  }
+
+  public int getWriteBufferHighWaterMark() {
+    return advanced.getWriteBufferHighWaterMark();
+  }
+
+  public int getWriteBufferLowWaterMark() {
+    return advanced.getWriteBufferLowWaterMark();
+  }
+
+  public int getListenerCount() {
+    return advanced.getListenerCount();
+  }
+
+  public int getWorkerThreads() {
+    return advanced.getWorkerThreads();
+  }
+
+  public int getSocketSendBufferSize() {
+    return advanced.getSocketSendBufferSize();
+  }
+
+  public int getSocketReceiveBufferSize() {
+    return advanced.getSocketReceiveBufferSize();
+  }
+
+  public int getTcpFastOpen() {
+    return advanced.getTcpFastOpen();
+  }
+
+  public boolean isTcpQuickAck() {
+    return advanced.isTcpQuickAck();
+  }
+
+  public boolean isEpollLevelTriggered() {
+    return advanced.isEpollLevelTriggered();
+  }
+
+  public boolean isSpliceRelay() {
+    return advanced.isSpliceRelay();
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -554,6 +655,15 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     @ConfigKey("compression-level")
     private int compressionLevel = -1;
 
+    @Comment({
+        "Whether to compress less when the proxy is short on CPU time. When enabled, packets are",
+        "compressed at the fastest level, or not at all, while the proxy is falling behind.",
+        "Players whose connection can not keep up still get packets compressed at the configured",
+        "level."
+    })
+    @ConfigKey("adaptive-compression")
+    private boolean adaptiveCompression = false;
+
     @Comment({
         "How fast (in milliseconds) are clients allowed to connect after the last connection? By",
         "default, this is three seconds. Disable this by setting this to 0."
@@ -570,10 +680,98 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
     @ConfigKey("read-timeout")
     private int readTimeout = 30000;
 
-    @Comment("Enables compatibility with HAProxy.")
+    @Comment({
+        "Enables compatibility with HAProxy. Only the binary version 2 of the PROXY protocol is",
+        "supported."
+    })
     @ConfigKey("proxy-protocol")
     private boolean proxyProtocol = false;
 
+    @Comment({
+        "If proxy-protocol is enabled, only accept connections from these addresses or CIDR",
+        "ranges, such as \"10.0.0.0/8\", so that nobody else can claim to be any player they",
+        "like. Connections from anywhere else are closed. By default, all sources are trusted."
+    })
+    @ConfigKey("proxy-protocol-trusted-sources")
+    private List<String> proxyProtocolTrustedSources = ImmutableList.of();
+
+    @Comment({
+        "Once more than this many bytes are waiting to be sent to a player or server, Velocity",
+        "stops reading from the other side of their connection until the backlog drains below",
+        "write-buffer-low-water-mark. This limits how much data a slow connection can make the",
+        "proxy hold in memory. The default is 2MiB."
+    })
+    @ConfigKey("write-buffer-high-water-mark")
+    private int writeBufferHighWaterMark = 2097152;
+
+    @Comment({
+        "How many bytes may still be waiting to be sent before Velocity resumes reading from the",
+        "other side of a connection. The default is 1MiB."
+    })
+    @ConfigKey("write-buffer-low-water-mark")
+    private int writeBufferLowWaterMark = 1048576;
+
+    @Comment({
+        "How many sockets Velocity should listen for new connections on. On Linux, setting this",
+        "higher than 1 binds several sockets to the same address using SO_REUSEPORT, letting the",
+        "kernel spread new connections between them so that they can be accepted by several",
+        "threads at once. This helps when many players connect at the same time. Other platforms",
+        "always use one socket."
+    })
+    @ConfigKey("listener-count")
+    private int listenerCount = 1;
+
+    @Comment({
+        "How many threads Velocity should use to handle connections. The default of 0 uses twice",
+        "the number of CPU cores."
+    })
+    @ConfigKey("worker-threads")
+    private int workerThreads = 0;
+
+    @Comment({
+        "The size of the kernel send and receive buffers for each connection, in bytes. Raising",
+        "these can help when sending lots of data over links with high latency. The default of 0",
+        "lets the operating system decide."
+    })
+    @ConfigKey("socket-send-buffer-size")
+    private int socketSendBufferSize = 0;
+
+    @ConfigKey("socket-receive-buffer-size")
+    private int socketReceiveBufferSize = 0;
+
+    @Comment({
+        "Linux only. If above 0, enables TCP Fast Open, allowing up to this many pending Fast Open",
+        "requests for incoming connections. Connections to servers will also try to use it."
+    })
+    @ConfigKey("tcp-fast-open")
+    private int tcpFastOpen = 0;
+
+    @Comment({
+        "Linux only. Acknowledges received data immediately instead of waiting to see if a reply",
+        "can carry the acknowledgement. The kernel turns this off again by itself, so it is turned",
+        "back on after every read, which costs an extra system call per read."
+    })
+    @ConfigKey("tcp-quick-ack")
+    private boolean tcpQuickAck = false;
+
+    @Comment({
+        "Linux only. How epoll should be used: \"edge-triggered\" (the default) or",
+        "\"level-triggered\"."
+    })
+    @ConfigKey("epoll-mode")
+    private String epollMode = "edge-triggered";
+
+    @Comment({
+        "Linux only. Once a player has joined a server, relays everything the server sends to",
+        "the player directly between their sockets in the kernel, which takes almost no CPU. This",
+        "requires epoll-mode to be \"level-triggered\", and is only used for players whose",
+        "connection is not encrypted (that is, in offline mode) and if the server uses the same",
+        "compression threshold as the proxy. While it is in use, Velocity and its plugins can not",
+        "see the server's packets, send anything to the player or move them to another server."
+    })
+    @ConfigKey("splice-relay")
+    private boolean spliceRelay = false;
+
     private Advanced() {
     }
 
@@ -581,10 +779,25 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       if (toml != null) {
         this.compressionThreshold = toml.getLong("compression-threshold", 1024L).intValue();
         this.compressionLevel = toml.getLong("compression-level", -1L).intValue();
+        this.adaptiveCompression = toml.getBoolean("adaptive-compression", false);
         this.loginRatelimit = toml.getLong("login-ratelimit", 3000L).intValue();
         this.connectionTimeout = toml.getLong("connection-timeout", 5000L).intValue();
         this.readTimeout = toml.getLong("read-timeout", 30000L).intValue();
         this.proxyProtocol = toml.getBoolean("proxy-protocol", false);
+        this.proxyProtocolTrustedSources = toml.getList("proxy-protocol-trusted-sources",
+            ImmutableList.of());
+        this.writeBufferHighWaterMark = toml.getLong("write-buffer-high-water-mark", 2097152L)
+            .intValue();
+        this.writeBufferLowWaterMark = toml.getLong("write-buffer-low-water-mark", 1048576L)
+            .intValue();
+        this.listenerCount = toml.getLong("listener-count", 1L).intValue();
+        this.workerThreads = toml.getLong("worker-threads", 0L).intValue();
+        this.socketSendBufferSize = toml.getLong("socket-send-buffer-size", 0L).intValue();
+        this.socketReceiveBufferSize = toml.getLong("socket-receive-buffer-size", 0L).intValue();
+        this.tcpFastOpen = toml.getLong("tcp-fast-open", 0L).intValue();
+        this.tcpQuickAck = toml.getBoolean("tcp-quick-ack", false);
+        this.epollMode = toml.getString("epoll-mode", "edge-triggered");
+        this.spliceRelay = toml.getBoolean("splice-relay", false);
       }
     }
 
@@ -596,6 +809,10 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       return compressionLevel;
     }
 
+    public boolean isAdaptiveCompression() {
+      return adaptiveCompression;
+    }
+
     public int getLoginRatelimit() {
       return loginRatelimit;
     }
@@ -612,15 +829,71 @@ public class VelocityConfiguration extends AnnotatedConfig implements ProxyConfi
       return proxyProtocol;
     }
 
+    public List<String> getProxyProtocolTrustedSources() {
+      return proxyProtocolTrustedSources;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+      return writeBufferHighWaterMark;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+      return writeBufferLowWaterMark;
+    }
+
+    public int getListenerCount() {
+      return listenerCount;
+    }
+
+    public int getWorkerThreads() {
+      return workerThreads;
+    }
+
+    public int getSocketSendBufferSize() {
+      return socketSendBufferSize;
+    }
+
+    public int getSocketReceiveBufferSize() {
+      return socketReceiveBufferSize;
+    }
+
+    public int getTcpFastOpen() {
+      return tcpFastOpen;
+    }
+
+    public boolean isTcpQuickAck() {
+      return tcpQuickAck;
+    }
+
+    public boolean isEpollLevelTriggered() {
+      return epollMode.equalsIgnoreCase("level-triggered");
+    }
+
+    public boolean isSpliceRelay() {
+      return spliceRelay;
+    }
+
     @Override
     public String toString() {
       return "Advanced{"
           + "compressionThreshold=" + compressionThreshold
           + ", compressionLevel=" + compressionLevel
+          + ", adaptiveCompression=" + adaptiveCompression
           + ", loginRatelimit=" + loginRatelimit
           + ", connectionTimeout=" + connectionTimeout
           + ", readTimeout=" + readTimeout
           + ", proxyProtocol=" + proxyProtocol
+          + ", proxyProtocolTrustedSources=" + proxyProtocolTrustedSources
+          + ", writeBufferHighWaterMark=" + writeBufferHighWaterMark
+          + ", writeBufferLowWaterMark=" + writeBufferLowWaterMark
+          + ", listenerCount=" + listenerCount
+          + ", workerThreads=" + workerThreads
+          + ", socketSendBufferSize=" + socketSendBufferSize
+          + ", socketReceiveBufferSize=" + socketReceiveBufferSize
+          + ", tcpFastOpen=" + tcpFastOpen
+          + ", tcpQuickAck=" + tcpQuickAck
+          + ", epollMode=" + epollMode
+          + ", spliceRelay=" + spliceRelay
           + '}';
     }
   }
@@ -0,0 +1,159 @@
+package com.velocitypowered.proxy.connection;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.velocitypowered.proxy.network.NetworkMetrics;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Batches writes made to connections from outside of their event loop. Instead of submitting a
+ * task to the event loop for every write, writes are queued, and a single task performs all the
+ * writes queued so far and then flushes each connection once.
+ */
+final class CrossLoopWriteQueue implements Runnable {
+
+  private static final Map<EventLoop, CrossLoopWriteQueue> QUEUES = new ConcurrentHashMap<>();
+
+  /**
+   * The maximum number of writes to perform in one go, so that other tasks on the event loop are
+   * not held up for too long.
+   */
+  private static final int MAX_WRITES_PER_RUN = 4096;
+
+  private final EventLoop eventLoop;
+  private final Queue<PendingWrite> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final Set<MinecraftConnection> toFlush = new HashSet<>();
+
+  @VisibleForTesting
+  CrossLoopWriteQueue(EventLoop eventLoop) {
+    this.eventLoop = eventLoop;
+  }
+
+  /**
+   * Returns the write queue for the specified event loop. The queue is forgotten once the event
+   * loop terminates.
+   * @param eventLoop the event loop
+   * @return the write queue for the event loop
+   */
+  static CrossLoopWriteQueue forEventLoop(EventLoop eventLoop) {
+    CrossLoopWriteQueue queue = QUEUES.get(eventLoop);
+    if (queue == null) {
+      CrossLoopWriteQueue created = new CrossLoopWriteQueue(eventLoop);
+      queue = QUEUES.putIfAbsent(eventLoop, created);
+      if (queue == null) {
+        queue = created;
+        eventLoop.terminationFuture().addListener(future -> QUEUES.remove(eventLoop, created));
+      }
+    }
+    return queue;
+  }
+
+  /**
+   * Queues a write to a connection on this queue's event loop.
+   * @param connection the connection to write to
+   * @param msg the message to write, or {@code null} to only flush or close the connection
+   * @param action what to do with the connection once the message has been written
+   */
+  void enqueue(MinecraftConnection connection, @Nullable Object msg, Action action) {
+    pending.add(new PendingWrite(connection, msg, action));
+    if (scheduled.compareAndSet(false, true)) {
+      NetworkMetrics.crossLoopWriteBatch();
+      eventLoop.execute(this);
+    }
+  }
+
+  @Override
+  public void run() {
+    // Clear the flag first, so that anything queued from now on is either written by this run or
+    // schedules another one.
+    scheduled.set(false);
+
+    PendingWrite write;
+    int written = 0;
+    while (written++ < MAX_WRITES_PER_RUN && (write = pending.poll()) != null) {
+      perform(write);
+    }
+
+    for (MinecraftConnection connection : toFlush) {
+      connection.flush();
+    }
+    toFlush.clear();
+
+    if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+      eventLoop.execute(this);
+    }
+  }
+
+  private void perform(PendingWrite write) {
+    Channel channel = write.connection.getChannel();
+    Object msg = write.msg;
+    if (!channel.isActive()) {
+      if (msg != null) {
+        ReferenceCountUtil.release(msg);
+      }
+      return;
+    }
+
+    if (write.action == Action.CLOSE) {
+      // Anything written before the close must reach the socket before the channel is closed, so
+      // flush it now instead of at the end of the run, and only close once that is done.
+      toFlush.remove(write.connection);
+      if (msg == null) {
+        write.connection.writeRaw(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
+      } else {
+        channel.writeAndFlush(msg).addListener(ChannelFutureListener.CLOSE);
+      }
+      return;
+    }
+
+    if (msg != null) {
+      channel.write(msg, channel.voidPromise());
+    }
+    if (write.action == Action.FLUSH) {
+      toFlush.add(write.connection);
+    }
+  }
+
+  /**
+   * What to do with a connection once a queued message has been written to it.
+   */
+  enum Action {
+    /**
+     * Leave the message buffered until the connection is flushed.
+     */
+    NONE,
+    /**
+     * Flush the connection, once everything currently queued has been written.
+     */
+    FLUSH,
+    /**
+     * Flush the connection, if there is a message, and then close it.
+     */
+    CLOSE
+  }
+
+  private static final class PendingWrite {
+
+    private final MinecraftConnection connection;
+    private final @Nullable Object msg;
+    private final Action action;
+
+    private PendingWrite(MinecraftConnection connection, @Nullable Object msg, Action action) {
+      this.connection = connection;
+      this.msg = msg;
+      this.action = action;
+    }
+  }
+}
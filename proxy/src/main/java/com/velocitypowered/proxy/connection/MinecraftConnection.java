@@ -16,21 +16,29 @@ import com.velocitypowered.natives.encryption.VelocityCipher;
 import com.velocitypowered.natives.encryption.VelocityCipherFactory;
 import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.CrossLoopWriteQueue.Action;
+import com.velocitypowered.proxy.network.NetworkMetrics;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.PooledPacket;
+import com.velocitypowered.proxy.protocol.RetainedFramePacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
+import com.velocitypowered.proxy.protocol.netty.CompressionPolicy;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCipherEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCompressDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftCompressEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
+import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.EventLoop;
-import io.netty.handler.codec.haproxy.HAProxyMessage;
+import io.netty.channel.MessageSizeEstimator;
 import io.netty.util.ReferenceCountUtil;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
@@ -49,6 +57,12 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
 
   private static final Logger logger = LogManager.getLogger(MinecraftConnection.class);
 
+  /**
+   * The maximum number of bytes we will hold back while waiting for the connection we are
+   * forwarding from to finish its current read batch.
+   */
+  private static final int MAX_PENDING_FORWARDED_BYTES = 64 * 1024;
+
   private final Channel channel;
   private SocketAddress remoteAddress;
   private StateRegistry state;
@@ -59,6 +73,12 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   private final VelocityServer server;
   private ConnectionType connectionType = ConnectionTypes.UNDETERMINED;
   private boolean knownDisconnect = false;
+  private int compressionThreshold = -1;
+  private final MessageSizeEstimator.Handle sizeEstimator;
+  private int pendingForwardedBytes;
+  private boolean readsPaused;
+  private long readsPausedSince;
+  private volatile boolean spliced;
 
   /**
    * Initializes a new {@link MinecraftConnection} instance.
@@ -70,6 +90,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     this.remoteAddress = channel.remoteAddress();
     this.server = server;
     this.state = StateRegistry.HANDSHAKE;
+    this.sizeEstimator = channel.config().getMessageSizeEstimator().newHandle();
   }
 
   @Override
@@ -85,6 +106,11 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
 
   @Override
   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    if (readsPaused) {
+      readsPaused = false;
+      NetworkMetrics.readResumed(System.nanoTime() - readsPausedSince);
+    }
+
     if (sessionHandler != null) {
       sessionHandler.disconnected();
     }
@@ -98,7 +124,7 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
     if (sessionHandler == null) {
       // No session handler available, do nothing
-      ReferenceCountUtil.release(msg);
+      release(msg);
       return;
     }
 
@@ -112,18 +138,36 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
         if (!pkt.handle(sessionHandler)) {
           sessionHandler.handleGeneric((MinecraftPacket) msg);
         }
-      } else if (msg instanceof HAProxyMessage) {
-        HAProxyMessage proxyMessage = (HAProxyMessage) msg;
-        this.remoteAddress = new InetSocketAddress(proxyMessage.sourceAddress(),
-            proxyMessage.sourcePort());
+      } else if (msg instanceof InetSocketAddress) {
+        // The player's real address, as sent by a load balancer using the PROXY protocol.
+        this.remoteAddress = (InetSocketAddress) msg;
       } else if (msg instanceof ByteBuf) {
         sessionHandler.handleUnknown((ByteBuf) msg);
+      } else if (msg instanceof CompressedFrame) {
+        sessionHandler.handleCompressed((CompressedFrame) msg);
       }
     } finally {
+      release(msg);
+    }
+  }
+
+  private static void release(Object msg) {
+    if (msg instanceof PooledPacket) {
+      ((PooledPacket) msg).recycle();
+    } else if (msg instanceof RetainedFramePacket) {
+      ((RetainedFramePacket) msg).releaseFrame();
+    } else {
       ReferenceCountUtil.release(msg);
     }
   }
 
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+    if (sessionHandler != null) {
+      sessionHandler.readCompleted();
+    }
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
     if (ctx.channel().isActive()) {
@@ -151,6 +195,24 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     }
   }
 
+  /**
+   * Pauses or resumes reading from this connection. This is used to apply backpressure when the
+   * connection we forward this connection's packets to can not keep up. This must be called from
+   * this connection's event loop.
+   * @param autoReading whether or not to read from the connection
+   */
+  public void setAutoReading(boolean autoReading) {
+    channel.config().setAutoRead(autoReading);
+    if (!autoReading && !readsPaused) {
+      readsPaused = true;
+      readsPausedSince = System.nanoTime();
+      NetworkMetrics.readPaused();
+    } else if (autoReading && readsPaused) {
+      readsPaused = false;
+      NetworkMetrics.readResumed(System.nanoTime() - readsPausedSince);
+    }
+  }
+
   public EventLoop eventLoop() {
     return channel.eventLoop();
   }
@@ -161,7 +223,14 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
    */
   public void write(Object msg) {
     if (channel.isActive()) {
-      channel.writeAndFlush(msg, channel.voidPromise());
+      if (channel.eventLoop().inEventLoop()) {
+        pendingForwardedBytes = 0;
+        channel.writeAndFlush(msg, channel.voidPromise());
+      } else {
+        enqueueCrossLoop(msg, Action.FLUSH);
+      }
+    } else {
+      ReferenceCountUtil.release(msg);
     }
   }
 
@@ -171,8 +240,29 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
    */
   public void delayedWrite(Object msg) {
     if (channel.isActive()) {
-      channel.write(msg, channel.voidPromise());
+      if (channel.eventLoop().inEventLoop()) {
+        channel.write(msg, channel.voidPromise());
+      } else {
+        enqueueCrossLoop(msg, Action.NONE);
+      }
+    } else {
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  /**
+   * Hands a write made from outside of this connection's event loop to the event loop's
+   * {@link CrossLoopWriteQueue}, which batches it with other such writes.
+   */
+  private void enqueueCrossLoop(@Nullable Object msg, Action action) {
+    if (msg != null) {
+      NetworkMetrics.crossLoopWrite();
+      if (msg instanceof PooledPacket) {
+        // The packet will be encoded later on another thread, so it can't be reused yet.
+        ((PooledPacket) msg).escape();
+      }
     }
+    CrossLoopWriteQueue.forEventLoop(channel.eventLoop()).enqueue(this, msg, action);
   }
 
   /**
@@ -180,7 +270,71 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
    */
   public void flush() {
     if (channel.isActive()) {
-      channel.flush();
+      if (channel.eventLoop().inEventLoop()) {
+        pendingForwardedBytes = 0;
+        channel.flush();
+      } else {
+        // Make sure anything queued by delayedWrite() is written first.
+        enqueueCrossLoop(null, Action.FLUSH);
+      }
+    }
+  }
+
+  /**
+   * Writes a message that is being forwarded from another connection. When called from this
+   * connection's event loop, the message is not flushed until {@link #flushForwarded()} is called
+   * (normally once the connection we are forwarding from finishes its current read batch) or too
+   * many bytes are pending. Otherwise, this behaves like {@link #write(Object)}.
+   * @param msg the message to forward
+   */
+  public void forward(Object msg) {
+    if (!channel.eventLoop().inEventLoop()) {
+      write(msg);
+      return;
+    }
+
+    if (channel.isActive()) {
+      pendingForwardedBytes += sizeEstimator.size(msg);
+      if (pendingForwardedBytes >= MAX_PENDING_FORWARDED_BYTES) {
+        pendingForwardedBytes = 0;
+        channel.writeAndFlush(msg, channel.voidPromise());
+      } else {
+        channel.write(msg, channel.voidPromise());
+      }
+    } else {
+      ReferenceCountUtil.release(msg);
+    }
+  }
+
+  /**
+   * Writes data that is already framed and ready to be sent directly to the connection, skipping
+   * all encoders and handlers in the pipeline.
+   * @param buf the data to write
+   * @return a future completed once the data has been written
+   */
+  public ChannelFuture writeRaw(ByteBuf buf) {
+    return channel.pipeline().firstContext().writeAndFlush(buf);
+  }
+
+  /**
+   * Returns whether or not traffic from the server is being spliced straight into this
+   * connection, in which case nothing else can be written to it.
+   * @return whether or not this connection is being spliced into
+   */
+  public boolean isSpliced() {
+    return spliced;
+  }
+
+  public void setSpliced(boolean spliced) {
+    this.spliced = spliced;
+  }
+
+  /**
+   * Flushes any messages written with {@link #forward(Object)} that are still pending.
+   */
+  public void flushForwarded() {
+    if (pendingForwardedBytes > 0) {
+      flush();
     }
   }
 
@@ -191,7 +345,11 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   public void closeWith(Object msg) {
     if (channel.isActive()) {
       knownDisconnect = true;
-      channel.writeAndFlush(msg).addListener(ChannelFutureListener.CLOSE);
+      if (channel.eventLoop().inEventLoop()) {
+        channel.writeAndFlush(msg).addListener(ChannelFutureListener.CLOSE);
+      } else {
+        enqueueCrossLoop(msg, Action.CLOSE);
+      }
     }
   }
 
@@ -200,7 +358,12 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
    */
   public void close() {
     if (channel.isActive()) {
-      channel.close();
+      if (channel.eventLoop().inEventLoop()) {
+        channel.close();
+      } else {
+        // Make sure anything already queued is written first.
+        enqueueCrossLoop(null, Action.CLOSE);
+      }
     }
   }
 
@@ -265,9 +428,21 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
       this.sessionHandler.deactivated();
     }
     this.sessionHandler = sessionHandler;
+    updatePacketInterest();
     sessionHandler.activated();
   }
 
+  /**
+   * Tells the decoder which packets the current session handler wants to inspect. Call this again
+   * if the handler's {@link MinecraftSessionHandler#interestedPackets()} changes.
+   */
+  public void updatePacketInterest() {
+    MinecraftDecoder decoder = this.channel.pipeline().get(MinecraftDecoder.class);
+    if (decoder != null && sessionHandler != null) {
+      decoder.setInterestedPackets(sessionHandler.interestedPackets());
+    }
+  }
+
   private void ensureOpen() {
     Preconditions.checkState(!isClosed(), "Connection is closed.");
   }
@@ -280,19 +455,42 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
   public void setCompressionThreshold(int threshold) {
     ensureOpen();
 
+    this.compressionThreshold = threshold;
     if (threshold == -1) {
       channel.pipeline().remove(COMPRESSION_DECODER);
-      channel.pipeline().remove(COMPRESSION_ENCODER);
+      channel.pipeline().replace(COMPRESSION_ENCODER, FRAME_ENCODER,
+          MinecraftVarintLengthEncoder.INSTANCE);
       return;
     }
 
     int level = server.getConfiguration().getCompressionLevel();
     VelocityCompressor compressor = Natives.compress.get().create(level);
-    MinecraftCompressEncoder encoder = new MinecraftCompressEncoder(threshold, compressor);
+    CompressionPolicy policy = server.getConfiguration().isAdaptiveCompression()
+        ? new CompressionPolicy(level) : null;
+    MinecraftCompressEncoder encoder = new MinecraftCompressEncoder(threshold, compressor, policy);
     MinecraftCompressDecoder decoder = new MinecraftCompressDecoder(threshold, compressor);
 
     channel.pipeline().addBefore(MINECRAFT_DECODER, COMPRESSION_DECODER, decoder);
-    channel.pipeline().addBefore(MINECRAFT_ENCODER, COMPRESSION_ENCODER, encoder);
+    // The compression encoder also writes the frame length.
+    channel.pipeline().replace(FRAME_ENCODER, COMPRESSION_ENCODER, encoder);
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets whether or not compressed packets that the session handler does not inspect should be
+   * passed on still compressed, as {@link CompressedFrame}s. This should only be enabled if they
+   * will be forwarded to a connection that also uses compression.
+   * @param enabled whether compressed packets may be passed through
+   */
+  public void setCompressedPassthrough(boolean enabled) {
+    MinecraftCompressDecoder decoder = channel.pipeline().get(MinecraftCompressDecoder.class);
+    if (decoder != null) {
+      decoder.setPassthroughDecoder(enabled ? channel.pipeline().get(MinecraftDecoder.class)
+          : null);
+    }
   }
 
   /**
@@ -310,8 +508,10 @@ public class MinecraftConnection extends ChannelInboundHandlerAdapter {
     VelocityCipher encryptionCipher = factory.forEncryption(key);
     channel.pipeline()
         .addBefore(FRAME_DECODER, CIPHER_DECODER, new MinecraftCipherDecoder(decryptionCipher));
+    String frameEncoder = channel.pipeline().get(FRAME_ENCODER) != null ? FRAME_ENCODER
+        : COMPRESSION_ENCODER;
     channel.pipeline()
-        .addBefore(FRAME_ENCODER, CIPHER_ENCODER, new MinecraftCipherEncoder(encryptionCipher));
+        .addBefore(frameEncoder, CIPHER_ENCODER, new MinecraftCipherEncoder(encryptionCipher));
   }
 
   @Nullable
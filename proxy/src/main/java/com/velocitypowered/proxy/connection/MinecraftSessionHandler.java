@@ -1,6 +1,7 @@
 package com.velocitypowered.proxy.connection;
 
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
 import com.velocitypowered.proxy.protocol.packet.AvailableCommands;
 import com.velocitypowered.proxy.protocol.packet.BossBar;
 import com.velocitypowered.proxy.protocol.packet.Chat;
@@ -31,9 +32,22 @@ import com.velocitypowered.proxy.protocol.packet.TabCompleteRequest;
 import com.velocitypowered.proxy.protocol.packet.TabCompleteResponse;
 import com.velocitypowered.proxy.protocol.packet.TitlePacket;
 import io.netty.buffer.ByteBuf;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public interface MinecraftSessionHandler {
 
+  /**
+   * Returns the packets this session handler needs to inspect. Any other packet is not decoded and
+   * is instead passed to {@link #handleUnknown(ByteBuf)} untouched. The default, {@code null},
+   * decodes every registered packet.
+   *
+   * @return the packets to decode, or {@code null} to decode all registered packets
+   */
+  default @Nullable Set<Class<? extends MinecraftPacket>> interestedPackets() {
+    return null;
+  }
+
   default boolean beforeHandle() {
     return false;
   }
@@ -46,6 +60,18 @@ public interface MinecraftSessionHandler {
 
   }
 
+  default void handleCompressed(CompressedFrame frame) {
+
+  }
+
+  /**
+   * Called once the connection has finished processing the current batch of reads. Handlers that
+   * forward packets to another connection should flush it here.
+   */
+  default void readCompleted() {
+
+  }
+
   default void connected() {
 
   }
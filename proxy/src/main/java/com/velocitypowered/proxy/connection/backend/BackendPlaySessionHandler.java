@@ -1,5 +1,6 @@
 package com.velocitypowered.proxy.connection.backend;
 
+import com.google.common.collect.ImmutableSet;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
@@ -14,6 +15,7 @@ import com.velocitypowered.proxy.connection.client.ClientPlaySessionHandler;
 import com.velocitypowered.proxy.connection.forge.legacy.LegacyForgeConstants;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
 import com.velocitypowered.proxy.protocol.packet.AvailableCommands;
 import com.velocitypowered.proxy.protocol.packet.AvailableCommands.ProtocolSuggestionProvider;
 import com.velocitypowered.proxy.protocol.packet.BossBar;
@@ -25,12 +27,24 @@ import com.velocitypowered.proxy.protocol.packet.PluginMessage;
 import com.velocitypowered.proxy.protocol.packet.TabCompleteResponse;
 import com.velocitypowered.proxy.protocol.util.PluginMessageUtil;
 import io.netty.buffer.ByteBuf;
+import java.util.Set;
 
 public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
+  private static final Set<Class<? extends MinecraftPacket>> INTERESTED_PACKETS = ImmutableSet.of(
+      KeepAlive.class, Disconnect.class, JoinGame.class, BossBar.class, PluginMessage.class,
+      PlayerListItem.class, AvailableCommands.class);
+  // Tab complete responses are only rewritten for 1.12.2 and below clients.
+  private static final Set<Class<? extends MinecraftPacket>> LEGACY_INTERESTED_PACKETS =
+      ImmutableSet.<Class<? extends MinecraftPacket>>builder()
+          .addAll(INTERESTED_PACKETS)
+          .add(TabCompleteResponse.class)
+          .build();
+
   private final VelocityServer server;
   private final VelocityServerConnection serverConn;
   private final ClientPlaySessionHandler playerSessionHandler;
+  private boolean spliceCandidate;
 
   BackendPlaySessionHandler(VelocityServer server, VelocityServerConnection serverConn) {
     this.server = server;
@@ -48,6 +62,38 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
   @Override
   public void activated() {
     serverConn.getServer().addPlayer(serverConn.getPlayer());
+
+    // Packets we don't inspect can stay compressed if both sides use compression.
+    MinecraftConnection serverMc = serverConn.getConnection();
+    MinecraftConnection clientMc = serverConn.getPlayer().getMinecraftConnection();
+    if (serverMc != null) {
+      boolean bothCompressed = serverMc.getCompressionThreshold() != -1
+          && clientMc.getCompressionThreshold() != -1;
+      serverMc.setCompressedPassthrough(bothCompressed);
+      clientMc.setCompressedPassthrough(bothCompressed);
+
+      // The player may already be too far behind to accept more data from this server.
+      serverMc.setAutoReading(clientMc.getChannel().isWritable());
+
+      spliceCandidate = SpliceRelay.isSupported(server, serverMc, clientMc);
+      trySplice();
+    }
+  }
+
+  private void trySplice() {
+    MinecraftConnection serverMc = serverConn.getConnection();
+    if (serverMc != null && SpliceRelay.tryStart(serverConn, serverMc,
+        server.getConfiguration().getReadTimeout())) {
+      spliceCandidate = false;
+    }
+  }
+
+  @Override
+  public Set<Class<? extends MinecraftPacket>> interestedPackets() {
+    if (serverConn.getPlayer().getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_13) < 0) {
+      return LEGACY_INTERESTED_PACKETS;
+    }
+    return INTERESTED_PACKETS;
   }
 
   @Override
@@ -157,19 +203,56 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
 
   @Override
   public void handleGeneric(MinecraftPacket packet) {
-    serverConn.getPlayer().getMinecraftConnection().write(packet);
+    serverConn.getPlayer().getMinecraftConnection().forward(packet);
   }
 
   @Override
   public void handleUnknown(ByteBuf buf) {
-    serverConn.getPlayer().getMinecraftConnection().write(buf.retain());
+    MinecraftConnection clientMc = serverConn.getPlayer().getMinecraftConnection();
+    if (clientMc.isSpliced()) {
+      // The decoders have been removed, so this is data that was not spliced, as it was received.
+      clientMc.writeRaw(buf.retain());
+    } else {
+      clientMc.forward(buf.retain());
+    }
+  }
+
+  @Override
+  public void handleCompressed(CompressedFrame frame) {
+    serverConn.getPlayer().getMinecraftConnection().forward(frame.retain());
+  }
+
+  @Override
+  public void readCompleted() {
+    serverConn.getPlayer().getMinecraftConnection().flushForwarded();
+    if (spliceCandidate) {
+      // We could not splice earlier because there was still data waiting to be sent to the
+      // player.
+      trySplice();
+    }
   }
 
   @Override
   public void exception(Throwable throwable) {
+    MinecraftConnection clientMc = serverConn.getPlayer().getMinecraftConnection();
+    if (clientMc.isSpliced()) {
+      // We can't tell the player what happened without corrupting what has been spliced to them
+      // so far.
+      clientMc.close();
+      return;
+    }
     serverConn.getPlayer().handleConnectionException(serverConn.getServer(), throwable);
   }
 
+  @Override
+  public void writabilityChanged() {
+    MinecraftConnection serverMc = serverConn.getConnection();
+    if (serverMc != null) {
+      boolean writable = serverMc.getChannel().isWritable();
+      serverConn.getPlayer().getMinecraftConnection().setAutoReading(writable);
+    }
+  }
+
   public VelocityServer getServer() {
     return server;
   }
@@ -177,6 +260,18 @@ public class BackendPlaySessionHandler implements MinecraftSessionHandler {
   @Override
   public void disconnected() {
     serverConn.getServer().removePlayer(serverConn.getPlayer());
+    // Everything the server sent has been spliced to the player, so the proxy can talk to them
+    // again.
+    SpliceRelay.stop(serverConn.getPlayer().getMinecraftConnection());
+
+    // If we were holding back the player's reads, let the server they are now connected to (if
+    // any) decide whether they should still be paused.
+    VelocityServerConnection current = serverConn.getPlayer().getConnectedServer();
+    MinecraftConnection currentMc = current == null ? null : current.getConnection();
+    if (currentMc == null || currentMc.getChannel().isWritable()) {
+      serverConn.getPlayer().getMinecraftConnection().setAutoReading(true);
+    }
+
     if (!serverConn.isGracefulDisconnect()) {
       serverConn.getPlayer().disconnect(ConnectionMessages.UNEXPECTED_DISCONNECT);
     }
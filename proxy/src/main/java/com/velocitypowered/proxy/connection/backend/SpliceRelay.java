@@ -0,0 +1,216 @@
+package com.velocitypowered.proxy.connection.backend;
+
+import static com.velocitypowered.proxy.network.Connections.CIPHER_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.COMPRESSION_DECODER;
+import static com.velocitypowered.proxy.network.Connections.FRAME_DECODER;
+import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
+import static com.velocitypowered.proxy.network.Connections.READ_TIMEOUT;
+import static com.velocitypowered.proxy.network.Connections.SPLICE_GUARD;
+
+import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.network.NetworkMetrics;
+import com.velocitypowered.proxy.protocol.RetainedFramePacket;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Relays everything a server sends to a player by splicing it from one socket to the other inside
+ * the kernel, so that it never passes through the proxy. This is only possible when the proxy has
+ * no reason to look at or change that traffic: the player's connection must not be encrypted and
+ * both connections must use the same compression threshold.
+ *
+ * <p>Spliced data is moved in whatever pieces the kernel has at hand, not in packets, so while
+ * the server connection is open the proxy can not tell where one packet sent to the player ends
+ * and the next begins. Until then, it can not send anything to the player itself (such writes
+ * fail), can not see any packets sent by the server, and can not move the player to another
+ * server. Once the server connection closes, everything the server sent has reached the player,
+ * so the player's connection is handed back to the proxy by {@link #stop(MinecraftConnection)}.
+ * The player's packets are handled as usual throughout.</p>
+ */
+final class SpliceRelay {
+
+  private static final Logger logger = LogManager.getLogger(SpliceRelay.class);
+
+  private SpliceRelay() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Determines whether or not traffic from the server could be spliced to the player.
+   * @param server the proxy
+   * @param serverMc the connection to the server
+   * @param clientMc the connection to the player
+   * @return whether or not splicing is possible
+   */
+  static boolean isSupported(VelocityServer server, MinecraftConnection serverMc,
+      MinecraftConnection clientMc) {
+    return isSupported(server.getConfiguration().isSpliceRelay(), serverMc, clientMc);
+  }
+
+  static boolean isSupported(boolean enabled, MinecraftConnection serverMc,
+      MinecraftConnection clientMc) {
+    if (!enabled) {
+      return false;
+    }
+
+    Channel serverCh = serverMc.getChannel();
+    Channel clientCh = clientMc.getChannel();
+    if (!(serverCh instanceof EpollSocketChannel) || !(clientCh instanceof EpollSocketChannel)) {
+      return false;
+    }
+
+    // Splicing requires level-triggered epoll and that both channels are on the same event loop.
+    return ((EpollSocketChannel) serverCh).config().getEpollMode() == EpollMode.LEVEL_TRIGGERED
+        && serverCh.eventLoop() == clientCh.eventLoop()
+        && clientCh.pipeline().get(CIPHER_ENCODER) == null
+        && serverMc.getCompressionThreshold() == clientMc.getCompressionThreshold();
+  }
+
+  /**
+   * Starts splicing traffic from the server to the player, if nothing else is waiting to be sent
+   * to the player. This must be called from the connections' event loop.
+   * @param serverConn the player's connection to the server
+   * @param serverMc the connection to the server
+   * @param readTimeout how long the server may go without any sign of life, in milliseconds
+   * @return whether or not splicing was started
+   */
+  static boolean tryStart(VelocityServerConnection serverConn, MinecraftConnection serverMc,
+      int readTimeout) {
+    MinecraftConnection clientMc = serverConn.getPlayer().getMinecraftConnection();
+    Channel serverCh = serverMc.getChannel();
+    Channel clientCh = clientMc.getChannel();
+    if (clientMc.isSpliced() || !serverCh.config().isAutoRead()) {
+      return false;
+    }
+
+    clientMc.flush();
+    ChannelOutboundBuffer pending = clientCh.unsafe().outboundBuffer();
+    if (pending == null || !pending.isEmpty()) {
+      return false;
+    }
+
+    // From now on, the proxy may only write raw data to the player, which is done by writing
+    // ahead of the guard.
+    clientMc.setSpliced(true);
+    clientCh.pipeline().addLast(SPLICE_GUARD, new SpliceWriteGuard());
+
+    // Remove the decoders, innermost first, so that anything the frame decoder has buffered
+    // reaches the session handler as it was received and is written to the player as-is. The read
+    // timeout goes too, as spliced data is never read by the pipeline: it is replaced by a
+    // watchdog that looks for keep alives from the player instead.
+    ChannelPipeline pipeline = serverCh.pipeline();
+    for (String name : new String[]{MINECRAFT_DECODER, COMPRESSION_DECODER, FRAME_DECODER,
+        READ_TIMEOUT}) {
+      if (pipeline.get(name) != null) {
+        pipeline.remove(name);
+      }
+    }
+
+    // Stop reading until everything written so far has reached the player's socket. Spliced data
+    // bypasses the channel's outbound buffer, so it would otherwise overtake it.
+    serverCh.config().setAutoRead(false);
+    clientMc.writeRaw(Unpooled.EMPTY_BUFFER).addListener((ChannelFutureListener) future -> {
+      if (!future.isSuccess() || !serverCh.isActive()) {
+        serverCh.close();
+        return;
+      }
+      NetworkMetrics.spliceStarted();
+      splice((EpollSocketChannel) serverCh, (EpollSocketChannel) clientCh);
+      serverCh.config().setAutoRead(true);
+    });
+    if (readTimeout > 0) {
+      startWatchdog(serverConn, serverCh, readTimeout);
+    }
+    return true;
+  }
+
+  /**
+   * Hands the player's connection back to the proxy once the server connection that was spliced
+   * into it has closed. This must be called from the connection's event loop.
+   * @param clientMc the connection to the player
+   */
+  static void stop(MinecraftConnection clientMc) {
+    if (!clientMc.isSpliced()) {
+      return;
+    }
+    ChannelPipeline pipeline = clientMc.getChannel().pipeline();
+    if (pipeline.get(SPLICE_GUARD) != null) {
+      pipeline.remove(SPLICE_GUARD);
+    }
+    clientMc.setSpliced(false);
+  }
+
+  private static void startWatchdog(VelocityServerConnection serverConn, Channel serverCh,
+      int readTimeout) {
+    // The server sends keep alives every few seconds, and we see the player's answers. If those
+    // stop coming, either the server or the player is not responding.
+    long started = System.currentTimeMillis();
+    ScheduledFuture<?> watchdog = serverCh.eventLoop().scheduleAtFixedRate(() -> {
+      long lastSeen = Math.max(started, serverConn.getLastSplicedKeepAlive());
+      if (System.currentTimeMillis() - lastSeen > readTimeout) {
+        logger.info("{}: no keep alive seen for {}ms while spliced, closing", serverConn,
+            readTimeout);
+        serverCh.close();
+      }
+    }, readTimeout, readTimeout / 2, TimeUnit.MILLISECONDS);
+    serverCh.closeFuture().addListener(future -> watchdog.cancel(false));
+  }
+
+  private static void splice(EpollSocketChannel serverCh, EpollSocketChannel clientCh) {
+    serverCh.spliceTo(clientCh, Integer.MAX_VALUE)
+        .addListener((ChannelFutureListener) future -> {
+          if (future.isSuccess() && serverCh.isActive() && clientCh.isActive()) {
+            // We have spliced as much as we asked for. Keep going.
+            splice(serverCh, clientCh);
+          } else {
+            NetworkMetrics.spliceEnded();
+            serverCh.close();
+          }
+        });
+  }
+
+  /**
+   * Rejects anything written to a spliced connection by the rest of the proxy, since it would
+   * corrupt the spliced stream. Writes with a promise fail, and the first rejected write is
+   * logged, as most writes to players don't look at the result.
+   */
+  static final class SpliceWriteGuard extends ChannelOutboundHandlerAdapter {
+
+    private boolean warned;
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+        throws Exception {
+      if (msg instanceof RetainedFramePacket) {
+        ((RetainedFramePacket) msg).releaseFrame();
+      } else {
+        ReferenceCountUtil.release(msg);
+      }
+      NetworkMetrics.splicedWriteRejected();
+
+      if (!warned) {
+        warned = true;
+        logger.warn("{}: can't send {} while a server is spliced to this connection; it and "
+            + "anything else sent until the server disconnects will be dropped",
+            ctx.channel().remoteAddress(), msg.getClass().getSimpleName());
+      }
+      if (!promise.isVoid()) {
+        promise.tryFailure(new IllegalStateException("Connection is spliced"));
+      }
+    }
+  }
+}
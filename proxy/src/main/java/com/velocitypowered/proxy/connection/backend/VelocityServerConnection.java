@@ -8,6 +8,7 @@ import static com.velocitypowered.proxy.network.Connections.FRAME_ENCODER;
 import static com.velocitypowered.proxy.network.Connections.HANDLER;
 import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
 import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.QUICK_ACK;
 import static com.velocitypowered.proxy.network.Connections.READ_TIMEOUT;
 
 import com.google.common.base.Preconditions;
@@ -22,6 +23,7 @@ import com.velocitypowered.proxy.connection.ConnectionTypes;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.MinecraftConnectionAssociation;
 import com.velocitypowered.proxy.connection.client.ConnectedPlayer;
+import com.velocitypowered.proxy.network.QuickAckHandler;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
@@ -29,6 +31,7 @@ import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
 import com.velocitypowered.proxy.protocol.packet.Handshake;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
 import com.velocitypowered.proxy.protocol.packet.PluginMessage;
 import com.velocitypowered.proxy.protocol.packet.ServerLogin;
 import com.velocitypowered.proxy.server.VelocityRegisteredServer;
@@ -43,6 +46,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class VelocityServerConnection implements MinecraftConnectionAssociation, ServerConnection {
 
+  private static final long MINIMUM_SPLICED_KEEP_ALIVE_INTERVAL = 1000;
+
   private final VelocityRegisteredServer registeredServer;
   private final ConnectedPlayer proxyPlayer;
   private final VelocityServer server;
@@ -52,6 +57,7 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
   private BackendConnectionPhase connectionPhase = BackendConnectionPhases.UNKNOWN;
   private long lastPingId;
   private long lastPingSent;
+  private long lastSplicedKeepAlive;
 
   /**
    * Initializes a new server connection.
@@ -90,11 +96,23 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
                     new MinecraftDecoder(ProtocolUtils.Direction.CLIENTBOUND))
                 .addLast(MINECRAFT_ENCODER,
                     new MinecraftEncoder(ProtocolUtils.Direction.SERVERBOUND));
+            if (server.getConfiguration().isTcpQuickAck()) {
+              ch.pipeline().addFirst(QUICK_ACK, QuickAckHandler.INSTANCE);
+            }
           }
         })
         .connect(registeredServer.getServerInfo().getAddress())
         .addListener((ChannelFutureListener) future -> {
           if (future.isSuccess()) {
+            // Forwarding between the player and server relies on both being handled by the same
+            // event loop.
+            if (future.channel().eventLoop() != proxyPlayer.getMinecraftConnection().eventLoop()) {
+              future.channel().close();
+              proxyPlayer.resetInFlightConnection();
+              result.completeExceptionally(new IllegalStateException("Server connection for "
+                  + proxyPlayer + " is not on the player's event loop"));
+              return;
+            }
             connection = new MinecraftConnection(future.channel(), server);
             connection.setAssociation(VelocityServerConnection.this);
             future.channel().pipeline().addLast(HANDLER, connection);
@@ -251,6 +269,28 @@ public class VelocityServerConnection implements MinecraftConnectionAssociation,
     this.lastPingId = -1;
   }
 
+  /**
+   * Forwards a keep alive sent by the player while this server is spliced to them. The proxy
+   * never sees the server's keep alives then, so it can't check the ID (the server still does),
+   * but keep alives are not forwarded more often than a server would send them.
+   * @param packet the keep alive
+   */
+  public void forwardSplicedKeepAlive(KeepAlive packet) {
+    long now = System.currentTimeMillis();
+    if (now - lastSplicedKeepAlive < MINIMUM_SPLICED_KEEP_ALIVE_INTERVAL) {
+      return;
+    }
+    lastSplicedKeepAlive = now;
+    MinecraftConnection smc = connection;
+    if (smc != null) {
+      smc.write(packet);
+    }
+  }
+
+  long getLastSplicedKeepAlive() {
+    return lastSplicedKeepAlive;
+  }
+
   /**
    * Ensures that this server connection remains "active": the connection is established and not
    * closed, the player is still connected to the server, and the player still remains online.
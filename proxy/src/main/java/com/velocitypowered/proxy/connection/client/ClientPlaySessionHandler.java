@@ -2,6 +2,7 @@ package com.velocitypowered.proxy.connection.client;
 
 import static com.velocitypowered.api.network.ProtocolVersion.MINECRAFT_1_13;
 
+import com.google.common.collect.ImmutableSet;
 import com.velocitypowered.api.event.connection.PluginMessageEvent;
 import com.velocitypowered.api.event.player.PlayerChatEvent;
 import com.velocitypowered.api.event.player.PlayerResourcePackStatusEvent;
@@ -13,6 +14,7 @@ import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
 import com.velocitypowered.proxy.protocol.packet.BossBar;
 import com.velocitypowered.proxy.protocol.packet.Chat;
 import com.velocitypowered.proxy.protocol.packet.ClientSettings;
@@ -50,6 +52,9 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
 
   private static final Logger logger = LogManager.getLogger(ClientPlaySessionHandler.class);
   private static final int MAX_PLUGIN_CHANNELS = 1024;
+  private static final Set<Class<? extends MinecraftPacket>> INTERESTED_PACKETS = ImmutableSet.of(
+      KeepAlive.class, Chat.class, TabCompleteRequest.class, PluginMessage.class,
+      ClientSettings.class, ResourcePackResponse.class);
 
   private final ConnectedPlayer player;
   private boolean spawned = false;
@@ -71,10 +76,18 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
     player.getMinecraftConnection().write(register);
   }
 
+  @Override
+  public Set<Class<? extends MinecraftPacket>> interestedPackets() {
+    return INTERESTED_PACKETS;
+  }
+
   @Override
   public boolean handle(KeepAlive packet) {
     VelocityServerConnection serverConnection = player.getConnectedServer();
-    if (serverConnection != null && packet.getRandomId() == serverConnection.getLastPingId()) {
+    if (serverConnection != null && player.getMinecraftConnection().isSpliced()) {
+      serverConnection.forwardSplicedKeepAlive(packet);
+    } else if (serverConnection != null
+        && packet.getRandomId() == serverConnection.getLastPingId()) {
       MinecraftConnection smc = serverConnection.getConnection();
       if (smc != null) {
         player.setPing(System.currentTimeMillis() - serverConnection.getLastPingSent());
@@ -126,7 +139,8 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
               if (eventMsg.isPresent()) {
                 smc.write(Chat.createServerbound(eventMsg.get()));
               } else {
-                smc.write(packet);
+                // The packet itself is recycled once we return, so send a copy.
+                smc.write(Chat.createServerbound(msg));
               }
             }
           }, smc.eventLoop());
@@ -269,7 +283,7 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
 
     MinecraftConnection smc = serverConnection.getConnection();
     if (smc != null && serverConnection.getPhase().consideredComplete()) {
-      smc.write(packet);
+      smc.forward(packet);
     }
   }
 
@@ -283,7 +297,32 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
 
     MinecraftConnection smc = serverConnection.getConnection();
     if (smc != null && serverConnection.getPhase().consideredComplete()) {
-      smc.write(buf.retain());
+      smc.forward(buf.retain());
+    }
+  }
+
+  @Override
+  public void handleCompressed(CompressedFrame frame) {
+    VelocityServerConnection serverConnection = player.getConnectedServer();
+    if (serverConnection == null) {
+      // No server connection yet, probably transitioning.
+      return;
+    }
+
+    MinecraftConnection smc = serverConnection.getConnection();
+    if (smc != null && serverConnection.getPhase().consideredComplete()) {
+      smc.forward(frame.retain());
+    }
+  }
+
+  @Override
+  public void readCompleted() {
+    VelocityServerConnection serverConnection = player.getConnectedServer();
+    if (serverConnection != null) {
+      MinecraftConnection smc = serverConnection.getConnection();
+      if (smc != null) {
+        smc.flushForwarded();
+      }
     }
   }
 
@@ -305,7 +344,7 @@ public class ClientPlaySessionHandler implements MinecraftSessionHandler {
       boolean writable = player.getMinecraftConnection().getChannel().isWritable();
       MinecraftConnection smc = serverConn.getConnection();
       if (smc != null) {
-        smc.getChannel().config().setAutoRead(writable);
+        smc.setAutoReading(writable);
       }
     }
   }
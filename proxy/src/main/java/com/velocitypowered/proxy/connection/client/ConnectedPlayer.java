@@ -1,6 +1,7 @@
 package com.velocitypowered.proxy.connection.client;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonObject;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.player.KickedFromServerEvent;
@@ -33,6 +34,7 @@ import com.velocitypowered.proxy.connection.MinecraftConnectionAssociation;
 import com.velocitypowered.proxy.connection.backend.VelocityServerConnection;
 import com.velocitypowered.proxy.connection.util.ConnectionMessages;
 import com.velocitypowered.proxy.connection.util.ConnectionRequestResults;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import com.velocitypowered.proxy.protocol.packet.Chat;
 import com.velocitypowered.proxy.protocol.packet.ClientSettings;
@@ -179,17 +181,28 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
   public void sendMessage(Component component, MessagePosition position) {
     Preconditions.checkNotNull(component, "component");
     Preconditions.checkNotNull(position, "position");
+    minecraftConnection.write(createMessagePacket(component, position, getProtocolVersion()));
+  }
 
+  /**
+   * Creates the packet used to send a chat message to a player using the specified protocol
+   * version.
+   * @param component the chat message to send
+   * @param position the position for the message
+   * @param protocolVersion the protocol version of the player
+   * @return the packet to send
+   */
+  public static MinecraftPacket createMessagePacket(Component component, MessagePosition position,
+      ProtocolVersion protocolVersion) {
     byte pos = (byte) position.ordinal();
     String json;
     if (position == MessagePosition.ACTION_BAR) {
-      if (getProtocolVersion().compareTo(ProtocolVersion.MINECRAFT_1_11) >= 0) {
+      if (protocolVersion.compareTo(ProtocolVersion.MINECRAFT_1_11) >= 0) {
         // We can use the title packet instead.
         TitlePacket pkt = new TitlePacket();
         pkt.setAction(TitlePacket.SET_ACTION_BAR);
         pkt.setComponent(ComponentSerializers.JSON.serialize(component));
-        minecraftConnection.write(pkt);
-        return;
+        return pkt;
       } else {
         // Due to issues with action bar packets, we'll need to convert the text message into a
         // legacy message and then inject the legacy text into a component... yuck!
@@ -204,7 +217,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
     Chat chat = new Chat();
     chat.setType(pos);
     chat.setMessage(json);
-    minecraftConnection.write(chat);
+    return chat;
   }
 
   @Override
@@ -246,17 +259,30 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
   @Override
   public void sendTitle(Title title) {
     Preconditions.checkNotNull(title, "title");
+    for (TitlePacket packet : createTitlePackets(title, getProtocolVersion())) {
+      minecraftConnection.delayedWrite(packet);
+    }
+    minecraftConnection.flush();
+  }
 
-    ProtocolVersion protocolVersion = minecraftConnection.getProtocolVersion();
+  /**
+   * Creates the packets used to send a title to a player using the specified protocol version.
+   * @param title the title to send
+   * @param protocolVersion the protocol version of the player
+   * @return the packets to send, in order
+   */
+  public static List<TitlePacket> createTitlePackets(Title title,
+      ProtocolVersion protocolVersion) {
     if (title.equals(Titles.reset())) {
-      minecraftConnection.write(TitlePacket.resetForProtocolVersion(protocolVersion));
+      return ImmutableList.of(TitlePacket.resetForProtocolVersion(protocolVersion));
     } else if (title.equals(Titles.hide())) {
-      minecraftConnection.write(TitlePacket.hideForProtocolVersion(protocolVersion));
+      return ImmutableList.of(TitlePacket.hideForProtocolVersion(protocolVersion));
     } else if (title instanceof TextTitle) {
       TextTitle tt = (TextTitle) title;
+      ImmutableList.Builder<TitlePacket> packets = ImmutableList.builder();
 
       if (tt.isResetBeforeSend()) {
-        minecraftConnection.delayedWrite(TitlePacket.resetForProtocolVersion(protocolVersion));
+        packets.add(TitlePacket.resetForProtocolVersion(protocolVersion));
       }
 
       Optional<Component> titleText = tt.getTitle();
@@ -264,7 +290,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
         TitlePacket titlePkt = new TitlePacket();
         titlePkt.setAction(TitlePacket.SET_TITLE);
         titlePkt.setComponent(ComponentSerializers.JSON.serialize(titleText.get()));
-        minecraftConnection.delayedWrite(titlePkt);
+        packets.add(titlePkt);
       }
 
       Optional<Component> subtitleText = tt.getSubtitle();
@@ -272,7 +298,7 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
         TitlePacket titlePkt = new TitlePacket();
         titlePkt.setAction(TitlePacket.SET_SUBTITLE);
         titlePkt.setComponent(ComponentSerializers.JSON.serialize(subtitleText.get()));
-        minecraftConnection.delayedWrite(titlePkt);
+        packets.add(titlePkt);
       }
 
       if (tt.areTimesSet()) {
@@ -280,13 +306,12 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
         timesPkt.setFadeIn(tt.getFadeIn());
         timesPkt.setStay(tt.getStay());
         timesPkt.setFadeOut(tt.getFadeOut());
-        minecraftConnection.delayedWrite(timesPkt);
+        packets.add(timesPkt);
       }
-      minecraftConnection.flush();
+      return packets.build();
     } else {
       throw new IllegalArgumentException("Unknown title class " + title.getClass().getName());
     }
-
   }
 
   @Nullable
@@ -613,6 +638,10 @@ public class ConnectedPlayer implements MinecraftConnectionAssociation, Player {
     private Optional<ConnectionRequestBuilder.Status> checkServer(RegisteredServer server) {
       Preconditions
           .checkState(server instanceof VelocityRegisteredServer, "Not a valid Velocity server.");
+      if (minecraftConnection.isSpliced()) {
+        // The proxy can't send the player anything until the spliced server connection closes.
+        return Optional.of(ConnectionRequestBuilder.Status.CONNECTION_CANCELLED);
+      }
       if (connectionInFlight != null || (connectedServer != null
           && !connectedServer.hasCompletedJoin())) {
         return Optional.of(ConnectionRequestBuilder.Status.CONNECTION_IN_PROGRESS);
@@ -123,7 +123,7 @@ public class LoginSessionHandler implements MinecraftSessionHandler {
           UrlEscapers.urlFormParameterEscaper().escape(login.getUsername()), serverId,
           UrlEscapers.urlFormParameterEscaper().escape(playerIp));
       server.getHttpClient()
-          .get(new URL(url))
+          .get(new URL(url), mcConnection.eventLoop())
           .thenAcceptAsync(profileResponse -> {
             if (mcConnection.isClosed()) {
               // The player disconnected after we authenticated them.
@@ -0,0 +1,82 @@
+package com.velocitypowered.proxy.connection.client;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.PreparedPacket;
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.PreEncodedPacket;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Sends the same packets to many players. The packets are created and encoded the first time they
+ * are sent to a player using a given protocol version.
+ */
+public final class VelocityPreparedPacket implements PreparedPacket {
+
+  private final Function<ProtocolVersion, List<? extends MinecraftPacket>> packetFactory;
+  private final int compressionLevel;
+  private final Map<ProtocolVersion, List<PreEncodedPacket>> encoded =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Creates a prepared packet.
+   * @param packetFactory creates the packets to send to a player using a protocol version
+   * @param compressionLevel the level to compress the packets with
+   */
+  public VelocityPreparedPacket(
+      Function<ProtocolVersion, List<? extends MinecraftPacket>> packetFactory,
+      int compressionLevel) {
+    this.packetFactory = Preconditions.checkNotNull(packetFactory, "packetFactory");
+    this.compressionLevel = compressionLevel;
+  }
+
+  @Override
+  public void sendTo(Player player) {
+    Preconditions.checkNotNull(player, "player");
+    writeTo(player).flush();
+  }
+
+  @Override
+  public void sendTo(Collection<? extends Player> players) {
+    Preconditions.checkNotNull(players, "players");
+    for (Player player : players) {
+      writeTo(player).flush();
+    }
+  }
+
+  private MinecraftConnection writeTo(Player player) {
+    Preconditions.checkArgument(player instanceof ConnectedPlayer, "Unknown player class %s",
+        player.getClass().getName());
+    MinecraftConnection connection = ((ConnectedPlayer) player).getMinecraftConnection();
+    ProtocolVersion version = connection.getProtocolVersion();
+    int threshold = connection.getCompressionThreshold();
+    for (PreEncodedPacket packet : encodedFor(version)) {
+      connection.delayedWrite(packet.messageFor(version, threshold));
+    }
+    return connection;
+  }
+
+  private List<PreEncodedPacket> encodedFor(ProtocolVersion version) {
+    // Look the version up first, as computeIfAbsent locks even when the key is present on Java 8.
+    List<PreEncodedPacket> packets = encoded.get(version);
+    if (packets == null) {
+      packets = encoded.computeIfAbsent(version, this::createPackets);
+    }
+    return packets;
+  }
+
+  private List<PreEncodedPacket> createPackets(ProtocolVersion version) {
+    ImmutableList.Builder<PreEncodedPacket> builder = ImmutableList.builder();
+    for (MinecraftPacket packet : packetFactory.apply(version)) {
+      builder.add(new PreEncodedPacket(packet, compressionLevel));
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,23 @@
+package com.velocitypowered.proxy.network;
+
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+/**
+ * Counts the connections accepted by a listener for {@link NetworkMetrics}.
+ */
+@Sharable
+class AcceptCounter extends ChannelInboundHandlerAdapter {
+
+  static final AcceptCounter INSTANCE = new AcceptCounter();
+
+  private AcceptCounter() {
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    NetworkMetrics.connectionAccepted();
+    ctx.fireChannelRead(msg);
+  }
+}
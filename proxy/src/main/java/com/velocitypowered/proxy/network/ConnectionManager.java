@@ -1,8 +1,13 @@
 package com.velocitypowered.proxy.network;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
 import com.velocitypowered.natives.util.Natives;
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.protocol.netty.GS4QueryHandler;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
@@ -14,18 +19,16 @@ import io.netty.channel.WriteBufferWaterMark;
 import io.netty.resolver.dns.DefaultDnsServerAddressStreamProvider;
 import io.netty.resolver.dns.DnsAddressResolverGroup;
 import java.net.InetSocketAddress;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public final class ConnectionManager {
 
-  private static final WriteBufferWaterMark SERVER_WRITE_MARK = new WriteBufferWaterMark(1 << 21,
-      1 << 21);
   private static final Logger LOGGER = LogManager.getLogger(ConnectionManager.class);
-  private final Map<InetSocketAddress, Channel> endpoints = new HashMap<>();
-  private final TransportType transportType;
+  private final ListMultimap<InetSocketAddress, Channel> endpoints = Multimaps
+      .synchronizedListMultimap(ArrayListMultimap.create());
+  private final NetworkTransport transportType;
   private final EventLoopGroup bossGroup;
   private final EventLoopGroup workerGroup;
   private final VelocityServer server;
@@ -44,11 +47,12 @@ public final class ConnectionManager {
   public ConnectionManager(VelocityServer server) {
     this.server = server;
     this.transportType = TransportType.bestType();
-    this.bossGroup = this.transportType.createEventLoopGroup(TransportType.Type.BOSS);
-    this.workerGroup = this.transportType.createEventLoopGroup(TransportType.Type.WORKER);
+    this.bossGroup = this.transportType.createEventLoopGroup(NetworkTransport.Type.BOSS, 0);
+    this.workerGroup = this.transportType.createEventLoopGroup(NetworkTransport.Type.WORKER,
+        server.getConfiguration().getWorkerThreads());
     this.serverChannelInitializer = new ServerChannelInitializerHolder(
         new ServerChannelInitializer(this.server));
-    this.resolverGroup = new DnsAddressResolverGroup(this.transportType.datagramChannelClass,
+    this.resolverGroup = new DnsAddressResolverGroup(this.transportType.getDatagramChannelClass(),
         DefaultDnsServerAddressStreamProvider.INSTANCE);
   }
 
@@ -63,24 +67,46 @@ public final class ConnectionManager {
    * @param address the address to bind to
    */
   public void bind(final InetSocketAddress address) {
+    final VelocityConfiguration configuration = this.server.getConfiguration();
     final ServerBootstrap bootstrap = new ServerBootstrap()
-        .channel(this.transportType.serverSocketChannelClass)
+        .channel(this.transportType.getServerSocketChannelClass())
         .group(this.bossGroup, this.workerGroup)
-        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, SERVER_WRITE_MARK)
+        .handler(AcceptCounter.INSTANCE)
+        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, this.writeBufferWaterMark())
         .childHandler(this.serverChannelInitializer.get())
         .childOption(ChannelOption.TCP_NODELAY, true)
         .childOption(ChannelOption.IP_TOS, 0x18)
         .localAddress(address);
-    bootstrap.bind()
-        .addListener((ChannelFutureListener) future -> {
-          final Channel channel = future.channel();
-          if (future.isSuccess()) {
-            this.endpoints.put(address, channel);
-            LOGGER.info("Listening on {}", channel.localAddress());
-          } else {
-            LOGGER.error("Can't bind to {}", address, future.cause());
-          }
-        });
+    if (configuration.getSocketSendBufferSize() > 0) {
+      bootstrap.childOption(ChannelOption.SO_SNDBUF, configuration.getSocketSendBufferSize());
+    }
+    if (configuration.getSocketReceiveBufferSize() > 0) {
+      // This has to be set on the listener so that it can be applied before the TCP handshake.
+      bootstrap.option(ChannelOption.SO_RCVBUF, configuration.getSocketReceiveBufferSize());
+    }
+    this.transportType.configureServer(bootstrap, configuration);
+
+    // Each listener is registered to the next boss event loop, and the kernel spreads new
+    // connections between them.
+    int listeners = configuration.getListenerCount();
+    if (listeners > 1 && !this.transportType.enableReusePort(bootstrap)) {
+      LOGGER.warn("Multiple listeners are not supported by the {} transport. Only one listener "
+          + "will be used.", this.transportType);
+      listeners = 1;
+    }
+
+    for (int i = 0; i < listeners; i++) {
+      bootstrap.bind()
+          .addListener((ChannelFutureListener) future -> {
+            final Channel channel = future.channel();
+            if (future.isSuccess()) {
+              this.endpoints.put(address, channel);
+              LOGGER.info("Listening on {}", channel.localAddress());
+            } else {
+              LOGGER.error("Can't bind to {}", address, future.cause());
+            }
+          });
+    }
   }
 
   /**
@@ -92,7 +118,7 @@ public final class ConnectionManager {
   public void queryBind(final String hostname, final int port) {
     InetSocketAddress address = new InetSocketAddress(hostname, port);
     final Bootstrap bootstrap = new Bootstrap()
-        .channel(this.transportType.datagramChannelClass)
+        .channel(this.transportType.getDatagramChannelClass())
         .group(this.workerGroup)
         .handler(new GS4QueryHandler(this.server))
         .localAddress(address);
@@ -120,13 +146,27 @@ public final class ConnectionManager {
    * @return a new {@link Bootstrap}
    */
   public Bootstrap createWorker(EventLoopGroup group) {
-    return new Bootstrap()
-        .channel(this.transportType.socketChannelClass)
+    final VelocityConfiguration configuration = this.server.getConfiguration();
+    final Bootstrap bootstrap = new Bootstrap()
+        .channel(this.transportType.getSocketChannelClass())
         .group(group)
         .option(ChannelOption.TCP_NODELAY, true)
-        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
-            this.server.getConfiguration().getConnectTimeout())
+        .option(ChannelOption.WRITE_BUFFER_WATER_MARK, this.writeBufferWaterMark())
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, configuration.getConnectTimeout())
         .resolver(this.resolverGroup);
+    if (configuration.getSocketSendBufferSize() > 0) {
+      bootstrap.option(ChannelOption.SO_SNDBUF, configuration.getSocketSendBufferSize());
+    }
+    if (configuration.getSocketReceiveBufferSize() > 0) {
+      bootstrap.option(ChannelOption.SO_RCVBUF, configuration.getSocketReceiveBufferSize());
+    }
+    this.transportType.configureClient(bootstrap, configuration);
+    return bootstrap;
+  }
+
+  private WriteBufferWaterMark writeBufferWaterMark() {
+    return new WriteBufferWaterMark(this.server.getConfiguration().getWriteBufferLowWaterMark(),
+        this.server.getConfiguration().getWriteBufferHighWaterMark());
   }
 
   /**
@@ -135,17 +175,23 @@ public final class ConnectionManager {
    * @param oldBind the endpoint to close
    */
   public void close(InetSocketAddress oldBind) {
-    Channel serverChannel = endpoints.remove(oldBind);
-    Preconditions.checkState(serverChannel != null, "Endpoint %s not registered", oldBind);
-    LOGGER.info("Closing endpoint {}", serverChannel.localAddress());
-    serverChannel.close().syncUninterruptibly();
+    List<Channel> serverChannels = endpoints.removeAll(oldBind);
+    Preconditions.checkState(!serverChannels.isEmpty(), "Endpoint %s not registered", oldBind);
+    for (Channel serverChannel : serverChannels) {
+      LOGGER.info("Closing endpoint {}", serverChannel.localAddress());
+      serverChannel.close().syncUninterruptibly();
+    }
   }
 
   /**
    * Closes all endpoints.
    */
   public void shutdown() {
-    for (final Channel endpoint : this.endpoints.values()) {
+    final List<Channel> endpoints;
+    synchronized (this.endpoints) {
+      endpoints = ImmutableList.copyOf(this.endpoints.values());
+    }
+    for (final Channel endpoint : endpoints) {
       try {
         LOGGER.info("Closing endpoint {}", endpoint.localAddress());
         endpoint.close().sync();
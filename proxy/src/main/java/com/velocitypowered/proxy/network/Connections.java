@@ -14,7 +14,10 @@ public class Connections {
   public static final String LEGACY_PING_ENCODER = "legacy-ping-encoder";
   public static final String MINECRAFT_DECODER = "minecraft-decoder";
   public static final String MINECRAFT_ENCODER = "minecraft-encoder";
+  public static final String PROXY_PROTOCOL_DECODER = "proxy-protocol-decoder";
+  public static final String QUICK_ACK = "quick-ack";
   public static final String READ_TIMEOUT = "read-timeout";
+  public static final String SPLICE_GUARD = "splice-guard";
 
   private Connections() {
     throw new AssertionError();
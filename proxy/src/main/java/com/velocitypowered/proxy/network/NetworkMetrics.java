@@ -0,0 +1,216 @@
+package com.velocitypowered.proxy.network;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proxy-wide counters describing how Velocity's network layer is behaving. These are cheap to
+ * update from any event loop and are shown by {@code /velocity metrics}.
+ */
+public final class NetworkMetrics {
+
+  private static final LongAdder readPauses = new LongAdder();
+  private static final LongAdder pausedConnections = new LongAdder();
+  private static final LongAdder pausedNanos = new LongAdder();
+  private static final LongAdder crossLoopWrites = new LongAdder();
+  private static final LongAdder crossLoopWriteBatches = new LongAdder();
+  private static final LongAdder accepts = new LongAdder();
+  private static final LongAdder splicedConnections = new LongAdder();
+  private static final LongAdder splicedWritesRejected = new LongAdder();
+  private static final LongAdder encodeBuffersGrown = new LongAdder();
+  private static final LongAdder compressBuffersGrown = new LongAdder();
+  private static final LongAdder compressionsSkipped = new LongAdder();
+  private static final LongAdder fastCompressions = new LongAdder();
+  private static final LongAdder incompressiblePackets = new LongAdder();
+  private static final LongAdder uncompressedBytesSkipped = new LongAdder();
+  private static final LongAdder deflatedBytes = new LongAdder();
+  private static final LongAdder deflateNanos = new LongAdder();
+
+  // Accepted connections per second, for the last ACCEPT_WINDOW_SECONDS seconds. Each slot holds
+  // the second it counts for, so stale slots can be told apart from current ones.
+  private static final int ACCEPT_WINDOW_SECONDS = 60;
+  private static final AtomicLongArray acceptSlotSeconds = new AtomicLongArray(
+      ACCEPT_WINDOW_SECONDS);
+  private static final AtomicLongArray acceptSlotCounts = new AtomicLongArray(
+      ACCEPT_WINDOW_SECONDS);
+
+  private NetworkMetrics() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Records that a connection stopped reading because the connection it forwards to can not keep
+   * up.
+   */
+  public static void readPaused() {
+    readPauses.increment();
+    pausedConnections.increment();
+  }
+
+  /**
+   * Records that a connection resumed reading after being paused.
+   * @param nanos how long the connection was paused for, in nanoseconds
+   */
+  public static void readResumed(long nanos) {
+    pausedConnections.decrement();
+    pausedNanos.add(nanos);
+  }
+
+  /**
+   * Records a write to a connection from outside of its event loop, which has to be handed off to
+   * the connection's event loop.
+   */
+  public static void crossLoopWrite() {
+    crossLoopWrites.increment();
+  }
+
+  /**
+   * Records that a task was submitted to an event loop to perform a batch of writes made from
+   * outside of it.
+   */
+  public static void crossLoopWriteBatch() {
+    crossLoopWriteBatches.increment();
+  }
+
+  /**
+   * Records that a server connection started being spliced to its player.
+   */
+  public static void spliceStarted() {
+    splicedConnections.increment();
+  }
+
+  /**
+   * Records that a server connection stopped being spliced to its player.
+   */
+  public static void spliceEnded() {
+    splicedConnections.decrement();
+  }
+
+  /**
+   * Records that something the proxy tried to send to a player was dropped because a server is
+   * spliced to them.
+   */
+  public static void splicedWriteRejected() {
+    splicedWritesRejected.increment();
+  }
+
+  /**
+   * Records that a buffer a packet was being encoded into had to be grown.
+   */
+  public static void encodeBufferGrown() {
+    encodeBuffersGrown.increment();
+  }
+
+  /**
+   * Records that a buffer a packet was being compressed into had to be grown.
+   */
+  public static void compressBufferGrown() {
+    compressBuffersGrown.increment();
+  }
+
+  /**
+   * Records that a packet over the compression threshold was sent uncompressed to save CPU time.
+   * @param bytes the size of the packet
+   */
+  public static void compressionSkipped(int bytes) {
+    compressionsSkipped.increment();
+    uncompressedBytesSkipped.add(bytes);
+  }
+
+  /**
+   * Records that a packet over the compression threshold was sent uncompressed because it would
+   * not have compressed well.
+   * @param bytes the size of the packet
+   */
+  public static void incompressibleSkipped(int bytes) {
+    incompressiblePackets.increment();
+    uncompressedBytesSkipped.add(bytes);
+  }
+
+  /**
+   * Records that a packet was compressed.
+   * @param bytes the size of the packet
+   * @param nanos how long compressing it took, in nanoseconds
+   */
+  public static void deflated(int bytes, long nanos) {
+    deflatedBytes.add(bytes);
+    deflateNanos.add(nanos);
+  }
+
+  /**
+   * Records that a packet was compressed at the fastest level to save CPU time.
+   */
+  public static void fastCompression() {
+    fastCompressions.increment();
+  }
+
+  /**
+   * Records a connection accepted by one of the proxy's listeners.
+   */
+  public static void connectionAccepted() {
+    accepts.increment();
+
+    long second = currentSecond();
+    int slot = (int) Math.floorMod(second, (long) ACCEPT_WINDOW_SECONDS);
+    long slotSecond = acceptSlotSeconds.get(slot);
+    if (slotSecond != second && acceptSlotSeconds.compareAndSet(slot, slotSecond, second)) {
+      // A few accepts may be lost if another thread counts one just before this reset, which is
+      // fine for a rate.
+      acceptSlotCounts.set(slot, 0);
+    }
+    acceptSlotCounts.incrementAndGet(slot);
+  }
+
+  private static long currentSecond() {
+    return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+  }
+
+  /**
+   * Returns a snapshot of all metrics, in display order.
+   * @return the current metrics, keyed by name
+   */
+  public static Map<String, Object> snapshot() {
+    // Only count whole seconds, so ignore the one we are currently in.
+    long now = currentSecond();
+    long recentAccepts = 0;
+    long peakAccepts = 0;
+    for (int i = 0; i < ACCEPT_WINDOW_SECONDS; i++) {
+      long age = now - acceptSlotSeconds.get(i);
+      if (age > 0 && age <= ACCEPT_WINDOW_SECONDS) {
+        long count = acceptSlotCounts.get(i);
+        recentAccepts += count;
+        peakAccepts = Math.max(peakAccepts, count);
+      }
+    }
+
+    // Estimate the time not spent compressing from how long compressing takes on average.
+    long skippedBytes = uncompressedBytesSkipped.sum();
+    long bytesDeflated = deflatedBytes.sum();
+    long savedNanos = bytesDeflated == 0 ? 0
+        : (long) ((double) skippedBytes * deflateNanos.sum() / bytesDeflated);
+
+    return ImmutableMap.<String, Object>builder()
+        .put("connections-accepted", accepts.sum())
+        .put("accepts-per-second", String.format("%.1f",
+            (double) recentAccepts / ACCEPT_WINDOW_SECONDS))
+        .put("accepts-peak-per-second", peakAccepts)
+        .put("read-pauses", readPauses.sum())
+        .put("connections-paused", pausedConnections.sum())
+        .put("time-paused-ms", TimeUnit.NANOSECONDS.toMillis(pausedNanos.sum()))
+        .put("cross-loop-writes", crossLoopWrites.sum())
+        .put("cross-loop-write-batches", crossLoopWriteBatches.sum())
+        .put("spliced-connections", splicedConnections.sum())
+        .put("spliced-writes-rejected", splicedWritesRejected.sum())
+        .put("encode-buffers-grown", encodeBuffersGrown.sum())
+        .put("compress-buffers-grown", compressBuffersGrown.sum())
+        .put("compressions-skipped", compressionsSkipped.sum())
+        .put("fast-compressions", fastCompressions.sum())
+        .put("incompressible-packets", incompressiblePackets.sum())
+        .put("bytes-not-compressed", skippedBytes)
+        .put("compression-time-saved-ms", TimeUnit.NANOSECONDS.toMillis(savedNanos))
+        .build();
+  }
+}
@@ -0,0 +1,80 @@
+package com.velocitypowered.proxy.network;
+
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+
+/**
+ * A way for the proxy to do network I/O, such as NIO or epoll.
+ *
+ * <p>Besides the built-in transports, additional transports can be provided by listing them in
+ * {@code META-INF/services/com.velocitypowered.proxy.network.NetworkTransport}. If any of these
+ * is available, it is used instead of the built-in transports.</p>
+ */
+public interface NetworkTransport {
+
+  /**
+   * Returns whether or not this transport can be used on this system.
+   * @return whether this transport is available
+   */
+  boolean isAvailable();
+
+  Class<? extends ServerSocketChannel> getServerSocketChannelClass();
+
+  Class<? extends SocketChannel> getSocketChannelClass();
+
+  Class<? extends DatagramChannel> getDatagramChannelClass();
+
+  /**
+   * Creates an event loop group for this transport.
+   * @param type what the event loop group will be used for
+   * @param threads the number of threads to use, or {@code 0} to use the default
+   * @return the event loop group
+   */
+  EventLoopGroup createEventLoopGroup(Type type, int threads);
+
+  /**
+   * Applies any options specific to this transport to a listener.
+   * @param bootstrap the bootstrap for the listener
+   * @param configuration the proxy configuration
+   */
+  default void configureServer(ServerBootstrap bootstrap, VelocityConfiguration configuration) {
+  }
+
+  /**
+   * Applies any options specific to this transport to an outgoing connection.
+   * @param bootstrap the bootstrap for the connection
+   * @param configuration the proxy configuration
+   */
+  default void configureClient(Bootstrap bootstrap, VelocityConfiguration configuration) {
+  }
+
+  /**
+   * Allows several listeners to be bound to the same address, if this transport supports it.
+   * @param bootstrap the bootstrap for the listeners
+   * @return whether or not several listeners can now be bound
+   */
+  default boolean enableReusePort(ServerBootstrap bootstrap) {
+    return false;
+  }
+
+  enum Type {
+    BOSS("Boss"),
+    WORKER("Worker");
+
+    private final String name;
+
+    Type(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return this.name;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.velocitypowered.proxy.network;
+
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.epoll.EpollSocketChannel;
+
+/**
+ * Keeps TCP quick-ack mode enabled on an epoll connection. Linux leaves quick-ack mode again on
+ * its own after a few acknowledgements, so setting the option once when the connection is made
+ * has almost no effect. Instead, it is enabled again after every read.
+ */
+@Sharable
+public class QuickAckHandler extends ChannelInboundHandlerAdapter {
+
+  public static final QuickAckHandler INSTANCE = new QuickAckHandler();
+
+  private QuickAckHandler() {
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+    if (ctx.channel() instanceof EpollSocketChannel) {
+      ((EpollSocketChannel) ctx.channel()).config().setTcpQuickAck(true);
+    }
+    ctx.fireChannelReadComplete();
+  }
+}
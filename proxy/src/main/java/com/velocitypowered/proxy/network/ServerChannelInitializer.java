@@ -6,9 +6,12 @@ import static com.velocitypowered.proxy.network.Connections.LEGACY_PING_DECODER;
 import static com.velocitypowered.proxy.network.Connections.LEGACY_PING_ENCODER;
 import static com.velocitypowered.proxy.network.Connections.MINECRAFT_DECODER;
 import static com.velocitypowered.proxy.network.Connections.MINECRAFT_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.PROXY_PROTOCOL_DECODER;
+import static com.velocitypowered.proxy.network.Connections.QUICK_ACK;
 import static com.velocitypowered.proxy.network.Connections.READ_TIMEOUT;
 
 import com.velocitypowered.proxy.VelocityServer;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
 import com.velocitypowered.proxy.connection.MinecraftConnection;
 import com.velocitypowered.proxy.connection.client.HandshakeSessionHandler;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
@@ -19,10 +22,14 @@ import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
+import com.velocitypowered.proxy.protocol.netty.ProxyProtocolV2Decoder;
+import com.velocitypowered.proxy.util.AddressRange;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
-import io.netty.handler.codec.haproxy.HAProxyMessageDecoder;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("WeakerAccess")
@@ -36,6 +43,13 @@ public class ServerChannelInitializer extends ChannelInitializer<Channel> {
 
   @Override
   protected void initChannel(final Channel ch) {
+    VelocityConfiguration configuration = this.server.getConfiguration();
+    if (configuration.isProxyProtocol()
+        && !isTrustedSource(configuration.getProxyProtocolTrustedSources(), ch.remoteAddress())) {
+      ch.close();
+      return;
+    }
+
     ch.pipeline()
         .addLast(READ_TIMEOUT,
             new ReadTimeoutHandler(this.server.getConfiguration().getReadTimeout(),
@@ -51,8 +65,27 @@ public class ServerChannelInitializer extends ChannelInitializer<Channel> {
     connection.setSessionHandler(new HandshakeSessionHandler(connection, this.server));
     ch.pipeline().addLast(Connections.HANDLER, connection);
 
-    if (this.server.getConfiguration().isProxyProtocol()) {
-      ch.pipeline().addFirst(new HAProxyMessageDecoder());
+    if (configuration.isTcpQuickAck()) {
+      ch.pipeline().addFirst(QUICK_ACK, QuickAckHandler.INSTANCE);
+    }
+
+    if (configuration.isProxyProtocol()) {
+      ch.pipeline().addFirst(PROXY_PROTOCOL_DECODER, new ProxyProtocolV2Decoder());
+    }
+  }
+
+  private static boolean isTrustedSource(List<AddressRange> trusted, SocketAddress address) {
+    if (trusted.isEmpty()) {
+      return true;
+    }
+    if (!(address instanceof InetSocketAddress)) {
+      return false;
+    }
+    for (AddressRange range : trusted) {
+      if (range.contains(((InetSocketAddress) address).getAddress())) {
+        return true;
+      }
     }
+    return false;
   }
 }
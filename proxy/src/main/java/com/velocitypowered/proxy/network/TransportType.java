@@ -1,10 +1,15 @@
 package com.velocitypowered.proxy.network;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.velocitypowered.proxy.config.VelocityConfiguration;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.kqueue.KQueue;
@@ -19,30 +24,78 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.ServiceLoader;
 import java.util.concurrent.ThreadFactory;
-import java.util.function.BiFunction;
 
-enum TransportType {
+enum TransportType implements NetworkTransport {
   NIO("NIO", NioServerSocketChannel.class, NioSocketChannel.class, NioDatagramChannel.class,
-      (name, type) -> new NioEventLoopGroup(0, createThreadFactory(name, type))),
+      NioEventLoopGroup::new) {
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+  },
   EPOLL("epoll", EpollServerSocketChannel.class, EpollSocketChannel.class,
-      EpollDatagramChannel.class,
-      (name, type) -> new EpollEventLoopGroup(0, createThreadFactory(name, type))),
+      EpollDatagramChannel.class, EpollEventLoopGroup::new) {
+    @Override
+    public boolean isAvailable() {
+      return Epoll.isAvailable();
+    }
+
+    @Override
+    public void configureServer(ServerBootstrap bootstrap, VelocityConfiguration configuration) {
+      EpollMode mode = epollMode(configuration);
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, mode)
+          .childOption(EpollChannelOption.EPOLL_MODE, mode);
+      if (configuration.getTcpFastOpen() > 0) {
+        bootstrap.option(EpollChannelOption.TCP_FASTOPEN, configuration.getTcpFastOpen());
+      }
+      if (configuration.isTcpQuickAck()) {
+        bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, true);
+      }
+    }
+
+    @Override
+    public void configureClient(Bootstrap bootstrap, VelocityConfiguration configuration) {
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, epollMode(configuration));
+      if (configuration.getTcpFastOpen() > 0) {
+        bootstrap.option(EpollChannelOption.TCP_FASTOPEN_CONNECT, true);
+      }
+      if (configuration.isTcpQuickAck()) {
+        bootstrap.option(EpollChannelOption.TCP_QUICKACK, true);
+      }
+    }
+
+    @Override
+    public boolean enableReusePort(ServerBootstrap bootstrap) {
+      bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+      return true;
+    }
+
+    private EpollMode epollMode(VelocityConfiguration configuration) {
+      return configuration.isEpollLevelTriggered() ? EpollMode.LEVEL_TRIGGERED
+          : EpollMode.EDGE_TRIGGERED;
+    }
+  },
   KQUEUE("Kqueue", KQueueServerSocketChannel.class, KQueueSocketChannel.class,
-      KQueueDatagramChannel.class,
-      (name, type) -> new KQueueEventLoopGroup(0, createThreadFactory(name, type)));
+      KQueueDatagramChannel.class, KQueueEventLoopGroup::new) {
+    @Override
+    public boolean isAvailable() {
+      return KQueue.isAvailable();
+    }
+  };
 
   final String name;
   final Class<? extends ServerSocketChannel> serverSocketChannelClass;
   final Class<? extends SocketChannel> socketChannelClass;
   final Class<? extends DatagramChannel> datagramChannelClass;
-  final BiFunction<String, Type, EventLoopGroup> eventLoopGroupFactory;
+  final EventLoopGroupFactory eventLoopGroupFactory;
 
   TransportType(final String name,
       final Class<? extends ServerSocketChannel> serverSocketChannelClass,
       final Class<? extends SocketChannel> socketChannelClass,
       final Class<? extends DatagramChannel> datagramChannelClass,
-      final BiFunction<String, Type, EventLoopGroup> eventLoopGroupFactory) {
+      final EventLoopGroupFactory eventLoopGroupFactory) {
     this.name = name;
     this.serverSocketChannelClass = serverSocketChannelClass;
     this.socketChannelClass = socketChannelClass;
@@ -55,40 +108,54 @@ enum TransportType {
     return this.name;
   }
 
-  public EventLoopGroup createEventLoopGroup(final Type type) {
-    return this.eventLoopGroupFactory.apply(this.name, type);
+  @Override
+  public Class<? extends ServerSocketChannel> getServerSocketChannelClass() {
+    return this.serverSocketChannelClass;
   }
 
-  private static ThreadFactory createThreadFactory(final String name, final Type type) {
+  @Override
+  public Class<? extends SocketChannel> getSocketChannelClass() {
+    return this.socketChannelClass;
+  }
+
+  @Override
+  public Class<? extends DatagramChannel> getDatagramChannelClass() {
+    return this.datagramChannelClass;
+  }
+
+  @Override
+  public EventLoopGroup createEventLoopGroup(final Type type, final int threads) {
+    return this.eventLoopGroupFactory.create(threads, createThreadFactory(this.name, type));
+  }
+
+  static ThreadFactory createThreadFactory(final String name, final Type type) {
     return new ThreadFactoryBuilder()
         .setNameFormat("Netty " + name + ' ' + type.toString() + " #%d")
         .setDaemon(true)
         .build();
   }
 
-  public static TransportType bestType() {
-    if (Epoll.isAvailable()) {
+  /**
+   * Picks the best available transport, preferring any provided through {@link ServiceLoader}.
+   * @return the transport to use
+   */
+  public static NetworkTransport bestType() {
+    for (NetworkTransport transport : ServiceLoader.load(NetworkTransport.class)) {
+      if (transport.isAvailable()) {
+        return transport;
+      }
+    }
+
+    if (EPOLL.isAvailable()) {
       return EPOLL;
-    } else if (KQueue.isAvailable()) {
+    } else if (KQUEUE.isAvailable()) {
       return KQUEUE;
     } else {
       return NIO;
     }
   }
 
-  public enum Type {
-    BOSS("Boss"),
-    WORKER("Worker");
-
-    private final String name;
-
-    Type(final String name) {
-      this.name = name;
-    }
-
-    @Override
-    public String toString() {
-      return this.name;
-    }
+  private interface EventLoopGroupFactory {
+    EventLoopGroup create(int threads, ThreadFactory threadFactory);
   }
 }
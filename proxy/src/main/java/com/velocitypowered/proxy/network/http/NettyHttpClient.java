@@ -4,6 +4,7 @@ import com.google.common.base.VerifyException;
 import com.velocitypowered.proxy.VelocityServer;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
 import io.netty.channel.pool.AbstractChannelPoolMap;
 import io.netty.channel.pool.ChannelPoolHandler;
 import io.netty.channel.pool.ChannelPoolMap;
@@ -22,9 +23,11 @@ import java.net.URL;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import javax.net.ssl.SSLEngine;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class NettyHttpClient {
 
+  private final Bootstrap bootstrap;
   private final ChannelPoolMap<HostAndSsl, SimpleChannelPool> poolMap;
   private final String userAgent;
 
@@ -35,11 +38,11 @@ public class NettyHttpClient {
    */
   public NettyHttpClient(VelocityServer server) {
     this.userAgent = server.getVersion().getName() + "/" + server.getVersion().getVersion();
-    Bootstrap bootstrap = server.initializeGenericBootstrap();
+    this.bootstrap = server.initializeGenericBootstrap();
     this.poolMap = new AbstractChannelPoolMap<HostAndSsl, SimpleChannelPool>() {
       @Override
       protected SimpleChannelPool newPool(HostAndSsl key) {
-        return new FixedChannelPool(bootstrap.remoteAddress(key.address), new ChannelPoolHandler() {
+        return new FixedChannelPool(bootstrapFor(key), new ChannelPoolHandler() {
           @Override
           public void channelReleased(Channel channel) throws Exception {
             channel.pipeline().remove("collector");
@@ -71,12 +74,31 @@ public class NettyHttpClient {
     };
   }
 
+  private Bootstrap bootstrapFor(HostAndSsl key) {
+    // Pools are kept per event loop, so that a request made on behalf of a player can be handled
+    // on that player's event loop.
+    EventLoop loop = key.loop;
+    Bootstrap forKey = loop == null ? bootstrap.clone() : bootstrap.clone(loop);
+    return forKey.remoteAddress(key.address);
+  }
+
   /**
    * Attempts an HTTP GET request to the specified URL.
    * @param url the URL to fetch
    * @return a future representing the response
    */
   public CompletableFuture<SimpleHttpResponse> get(URL url) {
+    return get(url, null);
+  }
+
+  /**
+   * Attempts an HTTP GET request to the specified URL, using a connection on the specified event
+   * loop. The returned future is completed on that event loop.
+   * @param url the URL to fetch
+   * @param loop the event loop to use, or {@code null} to use any event loop
+   * @return a future representing the response
+   */
+  public CompletableFuture<SimpleHttpResponse> get(URL url, @Nullable EventLoop loop) {
     String host = url.getHost();
     int port = url.getPort();
     boolean ssl = url.getProtocol().equals("https");
@@ -84,7 +106,7 @@ public class NettyHttpClient {
       port = ssl ? 443 : 80;
     }
 
-    HostAndSsl key = new HostAndSsl(InetSocketAddress.createUnresolved(host, port), ssl);
+    HostAndSsl key = new HostAndSsl(InetSocketAddress.createUnresolved(host, port), ssl, loop);
 
     CompletableFuture<SimpleHttpResponse> reply = new CompletableFuture<>();
     poolMap.get(key)
@@ -115,10 +137,12 @@ public class NettyHttpClient {
   private static class HostAndSsl {
     private final InetSocketAddress address;
     private final boolean ssl;
+    private final @Nullable EventLoop loop;
 
-    private HostAndSsl(InetSocketAddress address, boolean ssl) {
+    private HostAndSsl(InetSocketAddress address, boolean ssl, @Nullable EventLoop loop) {
       this.address = address;
       this.ssl = ssl;
+      this.loop = loop;
     }
 
     @Override
@@ -126,6 +150,7 @@ public class NettyHttpClient {
       return "HostAndSsl{"
           + "address=" + address
           + ", ssl=" + ssl
+          + ", loop=" + loop
           + '}';
     }
 
@@ -139,12 +164,13 @@ public class NettyHttpClient {
       }
       HostAndSsl that = (HostAndSsl) o;
       return ssl == that.ssl
-          && Objects.equals(address, that.address);
+          && Objects.equals(address, that.address)
+          && Objects.equals(loop, that.loop);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(address, ssl);
+      return Objects.hash(address, ssl, loop);
     }
   }
 }
@@ -0,0 +1,28 @@
+package com.velocitypowered.proxy.protocol;
+
+/**
+ * A packet that is returned to a pool once the proxy has finished handling it, so that frequently
+ * received packets don't need a new object every time. The connection that decoded the packet
+ * recycles it once its session handler returns, so a session handler must not keep a reference to
+ * the packet beyond that point unless it calls {@link #escape()}.
+ *
+ * <p>Pooling can be turned off with {@code -Dvelocity.packet-pooling-disabled=true}, in which case
+ * pooled packet types hand out a new packet every time.</p>
+ */
+public interface PooledPacket extends MinecraftPacket {
+
+  /**
+   * Whether pooled packet types should take their packets from a pool at all.
+   */
+  boolean POOLING_ENABLED = !Boolean.getBoolean("velocity.packet-pooling-disabled");
+
+  /**
+   * Returns this packet to its pool, unless it has escaped or was not taken from a pool.
+   */
+  void recycle();
+
+  /**
+   * Prevents this packet from being returned to its pool, because it is still being used.
+   */
+  void escape();
+}
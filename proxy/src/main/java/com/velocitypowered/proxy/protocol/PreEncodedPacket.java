@@ -0,0 +1,137 @@
+package com.velocitypowered.proxy.protocol;
+
+import com.google.common.base.Preconditions;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
+import com.velocitypowered.proxy.protocol.StateRegistry.PacketRegistry.ProtocolRegistry;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A clientbound play packet that is encoded at most once per protocol version, so that it can be
+ * sent to many players without encoding it again for each of them. If the packet is large enough
+ * to be compressed, it is also compressed at most once per protocol version and sent as a
+ * {@link CompressedFrame} to players that use compression.
+ *
+ * <p>The encoded packet is kept in direct memory that is shared by every message handed out for
+ * it, and freed once this object is garbage collected, so it does not need to be released.</p>
+ */
+public final class PreEncodedPacket {
+
+  private final MinecraftPacket packet;
+  private final int compressionLevel;
+  private final Map<ProtocolVersion, Encoded> encoded = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a pre-encoded packet. The packet must not be modified afterwards.
+   * @param packet the packet to encode
+   * @param compressionLevel the level to compress the packet with
+   */
+  public PreEncodedPacket(MinecraftPacket packet, int compressionLevel) {
+    this.packet = Preconditions.checkNotNull(packet, "packet");
+    this.compressionLevel = compressionLevel;
+  }
+
+  public MinecraftPacket getPacket() {
+    return packet;
+  }
+
+  /**
+   * Returns a message that can be written to a connection in the play state with the specified
+   * protocol version and compression threshold, instead of the packet itself. The caller takes
+   * ownership of the returned message.
+   * @param version the protocol version of the connection
+   * @param compressionThreshold the compression threshold of the connection, or {@code -1} if the
+   *                             connection is not compressed
+   * @return the message to write
+   */
+  public Object messageFor(ProtocolVersion version, int compressionThreshold) {
+    // Look the version up first, as computeIfAbsent locks even when the key is present on Java 8.
+    Encoded forVersion = encoded.get(version);
+    if (forVersion == null) {
+      forVersion = encoded.computeIfAbsent(version, this::encode);
+    }
+
+    ByteBuf body = forVersion.body;
+    int uncompressedSize = body.readableBytes();
+    if (compressionThreshold == -1 || uncompressedSize <= compressionThreshold) {
+      return body.retainedDuplicate();
+    }
+    return new CompressedFrame(uncompressedSize, forVersion.compressed().retainedDuplicate());
+  }
+
+  private Encoded encode(ProtocolVersion version) {
+    ProtocolRegistry registry = Direction.CLIENTBOUND
+        .getProtocolRegistry(StateRegistry.PLAY, version);
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(buf, registry.getPacketId(packet));
+    packet.encode(buf, Direction.CLIENTBOUND, registry.version);
+    return new Encoded(shared(buf));
+  }
+
+  private ByteBuf compress(ByteBuf body) {
+    ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+    VelocityCompressor compressor = Natives.compress.get().create(compressionLevel);
+    ByteBuf source = MoreByteBufUtils.ensureCompatible(alloc, compressor, body.duplicate());
+    ByteBuf out = MoreByteBufUtils.preferredBuffer(alloc, compressor, body.readableBytes());
+    try {
+      compressor.deflate(source, out);
+    } catch (DataFormatException e) {
+      out.release();
+      throw new IllegalStateException("Unable to compress packet", e);
+    } finally {
+      source.release();
+      compressor.dispose();
+    }
+    return shared(out);
+  }
+
+  /**
+   * Moves the contents of the specified buffer, which is released, into a direct buffer that is
+   * freed by the garbage collector and that can't be released by the players it is sent to.
+   */
+  private static ByteBuf shared(ByteBuf buf) {
+    try {
+      ByteBuffer direct = ByteBuffer.allocateDirect(buf.readableBytes());
+      buf.getBytes(buf.readerIndex(), direct);
+      direct.flip();
+      return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(direct));
+    } finally {
+      buf.release();
+    }
+  }
+
+  private final class Encoded {
+
+    private final ByteBuf body;
+    private volatile @Nullable ByteBuf compressed;
+
+    private Encoded(ByteBuf body) {
+      this.body = body;
+    }
+
+    private ByteBuf compressed() {
+      ByteBuf compressed = this.compressed;
+      if (compressed == null) {
+        synchronized (this) {
+          compressed = this.compressed;
+          if (compressed == null) {
+            compressed = compress(body);
+            this.compressed = compressed;
+          }
+        }
+      }
+      return compressed;
+    }
+  }
+}
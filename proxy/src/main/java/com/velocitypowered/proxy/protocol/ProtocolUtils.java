@@ -5,8 +5,11 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.util.GameProfile;
+import com.velocitypowered.proxy.protocol.util.AsciiStringCache;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.util.ByteProcessor;
+import io.netty.util.concurrent.FastThreadLocal;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -16,6 +19,14 @@ import java.util.UUID;
 public enum ProtocolUtils {
   ;
   private static final int DEFAULT_MAX_STRING_SIZE = 65536; // 64KiB
+  private static final ByteProcessor FIND_NON_ASCII = value -> value >= 0;
+  private static final int ASCII_SCRATCH_SIZE = 1024;
+  private static final FastThreadLocal<byte[]> ASCII_SCRATCH = new FastThreadLocal<byte[]>() {
+    @Override
+    protected byte[] initialValue() {
+      return new byte[ASCII_SCRATCH_SIZE];
+    }
+  };
 
   /**
    * Reads a Minecraft-style VarInt from the specified {@code buf}.
@@ -23,6 +34,34 @@ public enum ProtocolUtils {
    * @return the decoded VarInt
    */
   public static int readVarInt(ByteBuf buf) {
+    int readerIndex = buf.readerIndex();
+    if (buf.readableBytes() < 4) {
+      return readVarIntSlow(buf);
+    }
+
+    // Read the next four bytes at once and find the first one without the continuation bit.
+    int peek = buf.getIntLE(readerIndex);
+    if ((peek & 0x80) == 0) {
+      buf.readerIndex(readerIndex + 1);
+      return peek & 0x7F;
+    }
+    if ((peek & 0x8000) == 0) {
+      buf.readerIndex(readerIndex + 2);
+      return (peek & 0x7F) | (peek & 0x7F00) >>> 1;
+    }
+    if ((peek & 0x800000) == 0) {
+      buf.readerIndex(readerIndex + 3);
+      return (peek & 0x7F) | (peek & 0x7F00) >>> 1 | (peek & 0x7F0000) >>> 2;
+    }
+    if ((peek & 0x80000000) == 0) {
+      buf.readerIndex(readerIndex + 4);
+      return (peek & 0x7F) | (peek & 0x7F00) >>> 1 | (peek & 0x7F0000) >>> 2
+          | (peek & 0x7F000000) >>> 3;
+    }
+    return readVarIntSlow(buf);
+  }
+
+  private static int readVarIntSlow(ByteBuf buf) {
     int i = 0;
     int j = 0;
     while (true) {
@@ -44,17 +83,45 @@ public enum ProtocolUtils {
    * @param value the integer to write
    */
   public static void writeVarInt(ByteBuf buf, int value) {
-    while (true) {
-      if ((value & 0xFFFFFF80) == 0) {
-        buf.writeByte(value);
-        return;
-      }
-
-      buf.writeByte(value & 0x7F | 0x80);
-      value >>>= 7;
+    // Write the whole VarInt with as few calls as possible, since every call checks bounds.
+    if ((value & (0xFFFFFFFF << 7)) == 0) {
+      buf.writeByte(value);
+    } else if ((value & (0xFFFFFFFF << 14)) == 0) {
+      buf.writeShort((value & 0x7F | 0x80) << 8 | (value >>> 7));
+    } else if ((value & (0xFFFFFFFF << 21)) == 0) {
+      buf.writeMedium((value & 0x7F | 0x80) << 16 | ((value >>> 7) & 0x7F | 0x80) << 8
+          | (value >>> 14));
+    } else if ((value & (0xFFFFFFFF << 28)) == 0) {
+      buf.writeInt((value & 0x7F | 0x80) << 24 | ((value >>> 7) & 0x7F | 0x80) << 16
+          | ((value >>> 14) & 0x7F | 0x80) << 8 | (value >>> 21));
+    } else {
+      buf.writeInt((value & 0x7F | 0x80) << 24 | ((value >>> 7) & 0x7F | 0x80) << 16
+          | ((value >>> 14) & 0x7F | 0x80) << 8 | ((value >>> 21) & 0x7F | 0x80));
+      buf.writeByte(value >>> 28);
     }
   }
 
+  /**
+   * Returns the number of bytes {@code value} takes up when written as a VarInt.
+   * @param value the value
+   * @return the size of the VarInt, in bytes
+   */
+  public static int varIntBytes(int value) {
+    // Every byte holds 7 bits of the value. Zero still takes up one byte.
+    return (31 - Integer.numberOfLeadingZeros(value)) / 7 + 1;
+  }
+
+  /**
+   * Writes a VarInt that is always exactly three bytes long, padding it if needed. This is useful
+   * when the value is not known until after the data that follows it has been written.
+   * @param buf the buffer to write to
+   * @param value the integer to write, which must fit in 21 bits
+   */
+  public static void write21BitVarInt(ByteBuf buf, int value) {
+    int w = (value & 0x7F | 0x80) << 16 | ((value >>> 7) & 0x7F | 0x80) << 8 | (value >>> 14);
+    buf.writeMedium(w);
+  }
+
   public static String readString(ByteBuf buf) {
     return readString(buf, DEFAULT_MAX_STRING_SIZE);
   }
@@ -76,13 +143,56 @@ public enum ProtocolUtils {
     checkState(buf.isReadable(length),
         "Trying to read a string that is too long (wanted %s, only have %s)", length,
         buf.readableBytes());
-    String str = buf.toString(buf.readerIndex(), length, StandardCharsets.UTF_8);
+    String str;
+    if (length <= cap && isAscii(buf, buf.readerIndex(), length)) {
+      // Each byte is one character, so the length has already been checked.
+      str = decodeAscii(buf, buf.readerIndex(), length);
+    } else {
+      str = buf.toString(buf.readerIndex(), length, StandardCharsets.UTF_8);
+      checkState(str.length() <= cap, "Got a too-long string (got %s, max %s)",
+          str.length(), cap);
+    }
+    buf.skipBytes(length);
+    return str;
+  }
+
+  /**
+   * Reads a VarInt length-prefixed string from the {@code buf}, reusing a previously decoded
+   * instance from {@code cache} if possible. This is intended for short, frequently repeated
+   * strings like plugin channel names.
+   * @param buf the buffer to read from
+   * @param cache the cache to look the string up in
+   * @return the decoded string
+   */
+  public static String readString(ByteBuf buf, AsciiStringCache cache) {
+    int length = readVarInt(buf);
+    checkArgument(length >= 0, "Got a negative-length string (%s)", length);
+    checkArgument(length <= DEFAULT_MAX_STRING_SIZE * 4, "Bad string size (got %s, maximum is %s)",
+        length, DEFAULT_MAX_STRING_SIZE);
+    checkState(buf.isReadable(length),
+        "Trying to read a string that is too long (wanted %s, only have %s)", length,
+        buf.readableBytes());
+    String str = cache.get(buf, buf.readerIndex(), length);
     buf.skipBytes(length);
-    checkState(str.length() <= cap, "Got a too-long string (got %s, max %s)",
-        str.length(), cap);
+    checkState(str.length() <= DEFAULT_MAX_STRING_SIZE, "Got a too-long string (got %s, max %s)",
+        str.length(), DEFAULT_MAX_STRING_SIZE);
     return str;
   }
 
+  private static boolean isAscii(ByteBuf buf, int index, int length) {
+    return buf.forEachByte(index, length, FIND_NON_ASCII) == -1;
+  }
+
+  private static String decodeAscii(ByteBuf buf, int index, int length) {
+    if (buf.hasArray()) {
+      return new String(buf.array(), buf.arrayOffset() + index, length,
+          StandardCharsets.ISO_8859_1);
+    }
+    byte[] bytes = length <= ASCII_SCRATCH_SIZE ? ASCII_SCRATCH.get() : new byte[length];
+    buf.getBytes(index, bytes, 0, length);
+    return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+  }
+
   /**
    * Writes the specified {@code str} to the {@code buf} with a VarInt prefix.
    * @param buf the buffer to write to
@@ -0,0 +1,60 @@
+package com.velocitypowered.proxy.protocol;
+
+import com.velocitypowered.proxy.protocol.StateRegistry.PacketRegistry.ProtocolRegistry;
+import io.netty.buffer.ByteBuf;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A packet that keeps a reference to the frame it was decoded from. As long as the packet is not
+ * modified, it can be sent on to a connection using the same protocol by writing that frame again
+ * instead of encoding the packet.
+ */
+public abstract class RetainedFramePacket implements MinecraftPacket {
+
+  private @Nullable ByteBuf frame;
+  private @Nullable ProtocolRegistry frameRegistry;
+
+  /**
+   * Stores the frame this packet was decoded from. The packet takes ownership of {@code frame}.
+   * @param frame the frame, including the packet ID
+   * @param registry the registry the frame was decoded with
+   */
+  public synchronized void retainFrame(ByteBuf frame, ProtocolRegistry registry) {
+    releaseFrame();
+    this.frame = frame;
+    this.frameRegistry = registry;
+  }
+
+  /**
+   * Takes the frame this packet was decoded from, if it can be sent as-is using {@code registry}.
+   * The caller takes ownership of the returned frame.
+   * @param registry the registry the packet would be encoded with
+   * @return the original frame, or {@code null} if the packet must be encoded
+   */
+  public synchronized @Nullable ByteBuf takeFrame(ProtocolRegistry registry) {
+    if (frameRegistry != registry) {
+      return null;
+    }
+    ByteBuf taken = this.frame;
+    this.frame = null;
+    return taken;
+  }
+
+  /**
+   * Releases the frame this packet was decoded from, if it is still held.
+   */
+  public synchronized void releaseFrame() {
+    if (frame != null) {
+      frame.release();
+      frame = null;
+    }
+  }
+
+  /**
+   * Marks this packet as modified, so that it will be encoded again when it is sent. This must be
+   * called if the packet is changed other than through its setters.
+   */
+  public void markDirty() {
+    releaseFrame();
+  }
+}
@@ -45,17 +45,15 @@ import com.velocitypowered.proxy.protocol.packet.StatusResponse;
 import com.velocitypowered.proxy.protocol.packet.TabCompleteRequest;
 import com.velocitypowered.proxy.protocol.packet.TabCompleteResponse;
 import com.velocitypowered.proxy.protocol.packet.TitlePacket;
-import io.netty.util.collection.IntObjectHashMap;
-import io.netty.util.collection.IntObjectMap;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
-
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -92,7 +90,7 @@ public enum StateRegistry {
           map(0x02, MINECRAFT_1_12, false),
           map(0x01, MINECRAFT_1_12_1, false),
           map(0x05, MINECRAFT_1_13, false));
-      serverbound.register(Chat.class, Chat::new,
+      serverbound.register(Chat.class, Chat::newInstance,
           map(0x01, MINECRAFT_1_8, false),
           map(0x02, MINECRAFT_1_9, false),
           map(0x03, MINECRAFT_1_12, false),
@@ -110,7 +108,7 @@ public enum StateRegistry {
           map(0x0A, MINECRAFT_1_12, false),
           map(0x09, MINECRAFT_1_12_1, false),
           map(0x0A, MINECRAFT_1_13, false));
-      serverbound.register(KeepAlive.class, KeepAlive::new,
+      serverbound.register(KeepAlive.class, KeepAlive::newInstance,
           map(0x00, MINECRAFT_1_8, false),
           map(0x0B, MINECRAFT_1_9, false),
           map(0x0C, MINECRAFT_1_12, false),
@@ -126,7 +124,7 @@ public enum StateRegistry {
           map(0x0C, MINECRAFT_1_9, false),
           map(0x0C, MINECRAFT_1_12, false),
           map(0x0C, MINECRAFT_1_13, false));
-      clientbound.register(Chat.class, Chat::new,
+      clientbound.register(Chat.class, Chat::newInstance,
           map(0x02, MINECRAFT_1_8, true),
           map(0x0F, MINECRAFT_1_9, true),
           map(0x0F, MINECRAFT_1_12, true),
@@ -148,7 +146,7 @@ public enum StateRegistry {
           map(0x1A, MINECRAFT_1_9, false),
           map(0x1A, MINECRAFT_1_12, false),
           map(0x1B, MINECRAFT_1_13, false));
-      clientbound.register(KeepAlive.class, KeepAlive::new,
+      clientbound.register(KeepAlive.class, KeepAlive::newInstance,
           map(0x00, MINECRAFT_1_8, false),
           map(0x1F, MINECRAFT_1_9, false),
           map(0x1F, MINECRAFT_1_12, false),
@@ -233,6 +231,18 @@ public enum StateRegistry {
       LINKED_PROTOCOL_VERSIONS.put(MINECRAFT_1_13, EnumSet.of(MINECRAFT_1_13_1, MINECRAFT_1_13_2));
     }
 
+    /**
+     * Assigns every packet class a small, dense slot number, which is used to index the
+     * class-to-ID table of each {@link ProtocolRegistry}.
+     */
+    private static final AtomicInteger NEXT_PACKET_SLOT = new AtomicInteger();
+    private static final ClassValue<Integer> PACKET_SLOTS = new ClassValue<Integer>() {
+      @Override
+      protected Integer computeValue(Class<?> type) {
+        return NEXT_PACKET_SLOT.getAndIncrement();
+      }
+    };
+
     private final Direction direction;
     private final Map<ProtocolVersion, ProtocolRegistry> versions;
     private boolean fallback = true;
@@ -273,9 +283,9 @@ public enum StateRegistry {
           throw new IllegalArgumentException("Unknown protocol version " + mapping.protocolVersion);
         }
         if (!mapping.encodeOnly) {
-          registry.packetIdToSupplier.put(mapping.id, packetSupplier);
+          registry.putSupplier(mapping.id, packetSupplier);
         }
-        registry.packetClassToId.put(clazz, mapping.id);
+        registry.putPacketId(clazz, mapping.id);
 
         Collection<ProtocolVersion> linked = LINKED_PROTOCOL_VERSIONS.get(mapping.protocolVersion);
         if (linked != null) {
@@ -296,14 +306,37 @@ public enum StateRegistry {
     public class ProtocolRegistry {
 
       public final ProtocolVersion version;
-      final IntObjectMap<Supplier<? extends MinecraftPacket>> packetIdToSupplier =
-          new IntObjectHashMap<>(16, 0.5f);
-      final Object2IntMap<Class<? extends MinecraftPacket>> packetClassToId =
-          new Object2IntOpenHashMap<>(16, 0.5f);
+      // Both tables are only modified while the registry is being built, and are indexed by
+      // packet ID and packet class slot respectively. Packet IDs are small and dense, so a lookup
+      // is a single array load.
+      private @Nullable Supplier<?>[] packetIdToSupplier = new Supplier<?>[0];
+      private int[] packetSlotToId = new int[0];
 
       ProtocolRegistry(final ProtocolVersion version) {
         this.version = version;
-        this.packetClassToId.defaultReturnValue(Integer.MIN_VALUE);
+      }
+
+      void putSupplier(final int id, final Supplier<? extends MinecraftPacket> supplier) {
+        if (id >= packetIdToSupplier.length) {
+          packetIdToSupplier = Arrays.copyOf(packetIdToSupplier, id + 1);
+        }
+        packetIdToSupplier[id] = supplier;
+      }
+
+      void putPacketId(final Class<? extends MinecraftPacket> clazz, final int id) {
+        final int slot = PACKET_SLOTS.get(clazz);
+        if (slot >= packetSlotToId.length) {
+          final int oldLength = packetSlotToId.length;
+          packetSlotToId = Arrays.copyOf(packetSlotToId, slot + 1);
+          Arrays.fill(packetSlotToId, oldLength, packetSlotToId.length, Integer.MIN_VALUE);
+        }
+        packetSlotToId[slot] = id;
+      }
+
+      private int lookupPacketId(final Class<?> clazz) {
+        final int slot = PACKET_SLOTS.get(clazz);
+        final int[] ids = this.packetSlotToId;
+        return slot < ids.length ? ids[slot] : Integer.MIN_VALUE;
       }
 
       /**
@@ -312,11 +345,25 @@ public enum StateRegistry {
        * @return the packet instance, or {@code null} if the ID is not registered
        */
       public @Nullable MinecraftPacket createPacket(final int id) {
-        final Supplier<? extends MinecraftPacket> supplier = this.packetIdToSupplier.get(id);
+        final @Nullable Supplier<?>[] suppliers = this.packetIdToSupplier;
+        if (id < 0 || id >= suppliers.length) {
+          return null;
+        }
+        final @Nullable Supplier<?> supplier = suppliers[id];
         if (supplier == null) {
           return null;
         }
-        return supplier.get();
+        return (MinecraftPacket) supplier.get();
+      }
+
+      /**
+       * Determines whether a packet can be created from the specified {@code id}.
+       * @param id the packet ID
+       * @return whether the ID is registered
+       */
+      public boolean containsPacket(final int id) {
+        final @Nullable Supplier<?>[] suppliers = this.packetIdToSupplier;
+        return id >= 0 && id < suppliers.length && suppliers[id] != null;
       }
 
       /**
@@ -326,7 +373,7 @@ public enum StateRegistry {
        * @throws IllegalArgumentException if the packet ID is not found
        */
       public int getPacketId(final MinecraftPacket packet) {
-        final int id = this.packetClassToId.getInt(packet.getClass());
+        final int id = lookupPacketId(packet.getClass());
         if (id == Integer.MIN_VALUE) {
           throw new IllegalArgumentException(String.format(
               "Unable to find id for packet of type %s in %s protocol %s",
@@ -335,6 +382,22 @@ public enum StateRegistry {
         }
         return id;
       }
+
+      /**
+       * Looks up the packet IDs used by the specified packet classes.
+       * @param packets the packet classes to look up
+       * @return the IDs of the packets that are registered
+       */
+      public BitSet getPacketIds(final Collection<Class<? extends MinecraftPacket>> packets) {
+        final BitSet ids = new BitSet();
+        for (Class<? extends MinecraftPacket> packet : packets) {
+          final int id = lookupPacketId(packet);
+          if (id >= 0) {
+            ids.set(id);
+          }
+        }
+        return ids;
+      }
     }
   }
 
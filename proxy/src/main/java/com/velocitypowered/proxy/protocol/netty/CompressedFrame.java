@@ -0,0 +1,43 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A frame that is still compressed. The content is the zlib stream that follows the uncompressed
+ * length in the frame. These are produced by {@link MinecraftCompressDecoder} for packets the proxy
+ * does not need to inspect, so that they can be forwarded without being inflated and deflated
+ * again.
+ */
+public final class CompressedFrame extends DefaultByteBufHolder {
+
+  private final int uncompressedSize;
+
+  public CompressedFrame(int uncompressedSize, ByteBuf compressed) {
+    super(compressed);
+    this.uncompressedSize = uncompressedSize;
+  }
+
+  public int getUncompressedSize() {
+    return uncompressedSize;
+  }
+
+  @Override
+  public CompressedFrame replace(ByteBuf content) {
+    return new CompressedFrame(uncompressedSize, content);
+  }
+
+  @Override
+  public CompressedFrame retain() {
+    super.retain();
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "CompressedFrame{"
+        + "uncompressedSize=" + uncompressedSize
+        + ", compressedSize=" + content().readableBytes()
+        + '}';
+  }
+}
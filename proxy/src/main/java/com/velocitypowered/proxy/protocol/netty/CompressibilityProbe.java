@@ -0,0 +1,143 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
+
+/**
+ * Guesses whether a packet is worth compressing, so that packets which deflate can not shrink,
+ * such as already compressed or random-looking data, can be sent uncompressed instead.
+ *
+ * <p>How well each packet ID has compressed so far is remembered, and packets with IDs that
+ * compress well are always compressed. For other packets, a sample of the packet is checked: if
+ * its bytes look random (their entropy is close to 8 bits per byte), the packet is not
+ * compressed. Some of those packets are still compressed anyway, so that the guess is checked
+ * against the real thing.</p>
+ *
+ * <p>A probe belongs to a single connection, and must only be used from its event loop.</p>
+ */
+final class CompressibilityProbe {
+
+  // Compression ratios are tracked in 1/1024ths, and smoothed over roughly the last eight packets.
+  private static final int RATIO_SHIFT = 10;
+  private static final int SMOOTHING_SHIFT = 3;
+  private static final int UNKNOWN_RATIO = -1;
+  // Packet IDs that compress better than this are always compressed, without sampling them.
+  private static final int COMPRESSIBLE_RATIO = (1 << RATIO_SHIFT) * 8 / 10;
+  // Packet IDs are only tracked if they fit in a single byte, which all of them currently do.
+  private static final int TRACKED_PACKET_IDS = 128;
+
+  // The sample is taken in evenly spaced chunks, so that it covers the whole packet.
+  private static final int SAMPLE_CHUNKS = 8;
+  private static final int SAMPLE_CHUNK_SIZE = 64;
+  private static final int SAMPLE_SIZE = SAMPLE_CHUNKS * SAMPLE_CHUNK_SIZE;
+  // Smaller samples can not tell random data apart from merely varied data.
+  private static final int MINIMUM_SAMPLE_CHUNKS = 4;
+  // Samples with more entropy than this, in bits per byte, are considered random.
+  private static final double RANDOM_ENTROPY = 7.5;
+  // Even when a packet looks random, compress one in this many of them anyway.
+  private static final int PROBE_INTERVAL = 64;
+
+  // c * log2(c) for every count a byte can have in a sample.
+  private static final double[] COUNT_LOG_COUNT = new double[SAMPLE_SIZE + 1];
+
+  static {
+    for (int c = 1; c <= SAMPLE_SIZE; c++) {
+      COUNT_LOG_COUNT[c] = c * (Math.log(c) / Math.log(2));
+    }
+  }
+
+  private final int[] ratios = new int[TRACKED_PACKET_IDS];
+  private final int[] histogram = new int[256];
+  private final byte[] sample = new byte[SAMPLE_CHUNK_SIZE];
+  private int skippedSinceProbe;
+
+  CompressibilityProbe() {
+    Arrays.fill(ratios, UNKNOWN_RATIO);
+  }
+
+  /**
+   * Returns the ID of a packet, if it is small enough to be tracked.
+   * @param packet the packet, starting with its ID
+   * @return the packet ID, or {@code -1} if it is not tracked
+   */
+  static int packetId(ByteBuf packet) {
+    int id = packet.getByte(packet.readerIndex());
+    // IDs of 128 and over take more than one byte, and are not tracked.
+    return id >= 0 ? id : -1;
+  }
+
+  /**
+   * Determines whether a packet should be compressed.
+   * @param packetId the ID of the packet, as returned by {@link #packetId(ByteBuf)}
+   * @param packet the packet
+   * @return whether to compress the packet
+   */
+  boolean shouldCompress(int packetId, ByteBuf packet) {
+    if (packetId != -1) {
+      int ratio = ratios[packetId];
+      if (ratio != UNKNOWN_RATIO && ratio <= COMPRESSIBLE_RATIO) {
+        return true;
+      }
+    }
+
+    if (!looksRandom(packet)) {
+      return true;
+    }
+    if (++skippedSinceProbe >= PROBE_INTERVAL) {
+      skippedSinceProbe = 0;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Records how well a packet compressed.
+   * @param packetId the ID of the packet, as returned by {@link #packetId(ByteBuf)}
+   * @param uncompressedSize the size of the packet
+   * @param compressedSize the size of the packet once compressed
+   */
+  void record(int packetId, int uncompressedSize, int compressedSize) {
+    if (packetId == -1) {
+      return;
+    }
+    int sample = (int) (((long) compressedSize << RATIO_SHIFT) / uncompressedSize);
+    int ratio = ratios[packetId];
+    if (ratio == UNKNOWN_RATIO) {
+      ratios[packetId] = sample;
+    } else {
+      ratios[packetId] = ratio + ((sample - ratio) >> SMOOTHING_SHIFT);
+    }
+  }
+
+  private boolean looksRandom(ByteBuf packet) {
+    int length = packet.readableBytes();
+    int chunks = Math.min(SAMPLE_CHUNKS, length / SAMPLE_CHUNK_SIZE);
+    if (chunks < MINIMUM_SAMPLE_CHUNKS) {
+      // Too small to tell, and cheap to compress anyway.
+      return false;
+    }
+
+    Arrays.fill(histogram, 0);
+    int stride = length / chunks;
+    for (int i = 0; i < chunks; i++) {
+      packet.getBytes(packet.readerIndex() + i * stride, sample);
+      for (byte b : sample) {
+        histogram[b & 0xFF]++;
+      }
+    }
+
+    int sampled = chunks * SAMPLE_CHUNK_SIZE;
+    double sum = 0;
+    int distinct = 0;
+    for (int count : histogram) {
+      if (count != 0) {
+        sum += COUNT_LOG_COUNT[count];
+        distinct++;
+      }
+    }
+    // Entropy estimated from a sample is biased low, so correct for that (Miller-Madow).
+    double entropy = (COUNT_LOG_COUNT[sampled] - sum) / sampled
+        + (distinct - 1) / (2 * sampled * Math.log(2));
+    return entropy > RANDOM_ENTROPY;
+  }
+}
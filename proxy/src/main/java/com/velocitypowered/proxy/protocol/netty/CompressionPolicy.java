@@ -0,0 +1,80 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Decides how each packet over the compression threshold should be sent on a connection. When
+ * the connection's event loop is falling behind, packets are compressed at the fastest level, or
+ * not compressed at all, trading bandwidth for CPU time. If the player's connection can not keep
+ * up, bandwidth matters more, so the configured level is always used. Packets that would not
+ * compress well are dealt with separately, by {@link CompressibilityProbe}.
+ *
+ * <p>A policy belongs to a single connection, and must only be used from its event loop.</p>
+ */
+public final class CompressionPolicy {
+
+  /**
+   * How a packet should be sent.
+   */
+  public enum Decision {
+    /**
+     * Send the packet uncompressed, with an uncompressed size of 0. Every supported version
+     * accepts this for packets of any size.
+     */
+    STORE,
+    /**
+     * Compress the packet at {@link #FAST_LEVEL}.
+     */
+    FAST,
+    /**
+     * Compress the packet at the configured level.
+     */
+    CONFIGURED
+  }
+
+  public static final int FAST_LEVEL = 1;
+
+  // When the event loop is busy, packets smaller than this are not compressed at all. Larger ones
+  // still save enough bandwidth to be worth compressing quickly.
+  private static final int SMALL_PACKET_SIZE = 8192;
+  // An event loop with more tasks than this waiting for it is falling behind.
+  private static final int BUSY_PENDING_TASKS = 64;
+
+  private final boolean fastLevelAvailable;
+
+  /**
+   * Creates a policy for a connection.
+   * @param configuredLevel the configured compression level
+   */
+  public CompressionPolicy(int configuredLevel) {
+    // If the configured level is already fast, there is nothing to gain by switching.
+    this.fastLevelAvailable = configuredLevel == -1 || configuredLevel > FAST_LEVEL;
+  }
+
+  /**
+   * Decides how to send a packet over the compression threshold on {@code channel}.
+   * @param channel the channel the packet will be sent on
+   * @param uncompressedSize the size of the packet
+   * @return how to send the packet
+   */
+  public Decision decide(Channel channel, int uncompressedSize) {
+    return decide(uncompressedSize, isBusy(channel.eventLoop()), !channel.isWritable());
+  }
+
+  Decision decide(int uncompressedSize, boolean loopBusy, boolean linkCongested) {
+    if (linkCongested || !loopBusy) {
+      return Decision.CONFIGURED;
+    }
+    if (uncompressedSize < SMALL_PACKET_SIZE) {
+      return Decision.STORE;
+    }
+    return fastLevelAvailable ? Decision.FAST : Decision.CONFIGURED;
+  }
+
+  private static boolean isBusy(EventLoop eventLoop) {
+    return eventLoop instanceof SingleThreadEventExecutor
+        && ((SingleThreadEventExecutor) eventLoop).pendingTasks() > BUSY_PENDING_TASKS;
+  }
+}
@@ -10,13 +10,23 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
 
-  private static final int MAXIMUM_INITIAL_BUFFER_SIZE = 65536; // 64KiB
+  // The largest packet the vanilla client and server will accept once it has been decompressed.
+  private static final int MAXIMUM_UNCOMPRESSED_SIZE = 2097152; // 2MiB
+  private static final int PACKET_ID_PEEK_INPUT_SIZE = 256;
+  private static final int MAX_PACKET_ID_SIZE = 5;
 
   private final int threshold;
   private final VelocityCompressor compressor;
+  private @Nullable MinecraftDecoder passthroughDecoder;
+  private @Nullable Inflater peekInflater;
+  private final byte[] peekInput = new byte[PACKET_ID_PEEK_INPUT_SIZE];
+  private final byte[] peekOutput = new byte[MAX_PACKET_ID_SIZE];
 
   public MinecraftCompressDecoder(int threshold, VelocityCompressor compressor) {
     this.threshold = threshold;
@@ -35,11 +45,25 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
 
     checkFrame(expectedSize >= threshold, "Uncompressed size %s is greater than threshold %s",
         expectedSize, threshold);
+    checkFrame(expectedSize <= MAXIMUM_UNCOMPRESSED_SIZE, "Uncompressed size %s exceeds the "
+        + "maximum of %s", expectedSize, MAXIMUM_UNCOMPRESSED_SIZE);
+
+    MinecraftDecoder passthroughDecoder = this.passthroughDecoder;
+    if (passthroughDecoder != null) {
+      int packetId = peekPacketId(in);
+      if (packetId != -1 && !passthroughDecoder.shouldDecode(packetId)) {
+        // Nobody needs to look at this packet, so leave it compressed.
+        out.add(new CompressedFrame(expectedSize, in.retainedSlice()));
+        in.skipBytes(in.readableBytes());
+        return;
+      }
+    }
+
     ByteBuf compatibleIn = ensureCompatible(ctx.alloc(), compressor, in);
-    int initialCapacity = Math.min(expectedSize, MAXIMUM_INITIAL_BUFFER_SIZE);
-    ByteBuf uncompressed = preferredBuffer(ctx.alloc(), compressor, initialCapacity);
+    // The size is known and bounded, so allocate exactly that much, and inflate straight into it.
+    ByteBuf uncompressed = preferredBuffer(ctx.alloc(), compressor, expectedSize);
     try {
-      compressor.inflate(compatibleIn, uncompressed);
+      compressor.inflate(compatibleIn, uncompressed, expectedSize);
       checkFrame(expectedSize == uncompressed.readableBytes(),
           "Mismatched compression sizes (got %s, expected %s)",
           uncompressed.readableBytes(), expectedSize);
@@ -52,8 +76,58 @@ public class MinecraftCompressDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
   }
 
+  /**
+   * Inflates just enough of the compressed packet to read its ID.
+   *
+   * @param in the compressed packet
+   * @return the packet ID, or {@code -1} if it could not be determined
+   */
+  private int peekPacketId(ByteBuf in) {
+    Inflater inflater = this.peekInflater;
+    if (inflater == null) {
+      inflater = this.peekInflater = new Inflater();
+    }
+
+    int inputLength = Math.min(in.readableBytes(), PACKET_ID_PEEK_INPUT_SIZE);
+    in.getBytes(in.readerIndex(), peekInput, 0, inputLength);
+    int produced;
+    try {
+      inflater.setInput(peekInput, 0, inputLength);
+      produced = inflater.inflate(peekOutput, 0, MAX_PACKET_ID_SIZE);
+    } catch (DataFormatException e) {
+      // Let the full inflate report the problem.
+      return -1;
+    } finally {
+      inflater.reset();
+    }
+
+    int packetId = 0;
+    for (int i = 0; i < produced; i++) {
+      byte b = peekOutput[i];
+      packetId |= (b & 0x7F) << (i * 7);
+      if ((b & 0x80) == 0) {
+        return packetId;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Sets whether or not packets that {@code decoder} would not decode should be passed on as
+   * {@link CompressedFrame}s instead of being inflated.
+   *
+   * @param decoder the decoder that will decode packets from this connection, or {@code null} to
+   *                always inflate packets
+   */
+  public void setPassthroughDecoder(@Nullable MinecraftDecoder decoder) {
+    this.passthroughDecoder = decoder;
+  }
+
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
     compressor.dispose();
+    if (peekInflater != null) {
+      peekInflater.end();
+    }
   }
 }
@@ -1,50 +1,227 @@
 package com.velocitypowered.proxy.protocol.netty;
 
+import static com.velocitypowered.proxy.protocol.util.NettyPreconditions.checkFrame;
+
 import com.velocitypowered.natives.compression.VelocityCompressor;
 import com.velocitypowered.natives.util.MoreByteBufUtils;
+import com.velocitypowered.natives.util.Natives;
+import com.velocitypowered.proxy.network.NetworkMetrics;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.netty.CompressionPolicy.Decision;
+import com.velocitypowered.proxy.protocol.util.AdaptiveSizeHint;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.EncoderException;
 import io.netty.handler.codec.MessageToByteEncoder;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Compresses packets and prefixes them with their length. This replaces
+ * {@link MinecraftVarintLengthEncoder} once compression is enabled, so that each frame is written
+ * into a single buffer.
+ */
 public class MinecraftCompressEncoder extends MessageToByteEncoder<ByteBuf> {
 
+  private static final int FRAME_LENGTH_SIZE = 3;
+  private static final int MAXIMUM_FRAME_LENGTH = (1 << 21) - 1;
+  // Compression ratios are tracked in 1/1024ths. Deflate may slightly expand data that does not
+  // compress, so allow for a little more than the input.
+  private static final int RATIO_SHIFT = 10;
+  private static final int MAXIMUM_RATIO = (1 << RATIO_SHIFT) + (1 << RATIO_SHIFT) / 16;
+
   private final int threshold;
   private final VelocityCompressor compressor;
+  private final AdaptiveSizeHint compressionRatio = new AdaptiveSizeHint(
+      (1 << RATIO_SHIFT) / 3, 1, MAXIMUM_RATIO);
+  private final CompressibilityProbe probe = new CompressibilityProbe();
+  private final @Nullable CompressionPolicy policy;
+  private @Nullable VelocityCompressor fastCompressor;
+  // Decided when the buffer for a packet is allocated, so that it can be sized to match, and
+  // used when the packet is encoded right after.
+  private Decision decision = Decision.CONFIGURED;
+  private boolean incompressible;
 
   public MinecraftCompressEncoder(int threshold, VelocityCompressor compressor) {
+    this(threshold, compressor, null);
+  }
+
+  /**
+   * Creates a compression encoder.
+   * @param threshold the compression threshold
+   * @param compressor the compressor to use, at the configured level
+   * @param policy the policy deciding how to compress each packet, or {@code null} to always
+   *               compress at the configured level
+   */
+  public MinecraftCompressEncoder(int threshold, VelocityCompressor compressor,
+      @Nullable CompressionPolicy policy) {
     this.threshold = threshold;
     this.compressor = compressor;
+    this.policy = policy;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (msg instanceof CompressedFrame) {
+      CompressedFrame frame = (CompressedFrame) msg;
+      ByteBuf encoded;
+      try {
+        encoded = encodeCompressedFrame(ctx, frame);
+      } finally {
+        frame.release();
+      }
+      ctx.write(encoded, promise);
+      return;
+    }
+    super.write(ctx, msg, promise);
+  }
+
+  private ByteBuf encodeCompressedFrame(ChannelHandlerContext ctx, CompressedFrame frame)
+      throws Exception {
+    ByteBuf compressed = frame.content();
+    int uncompressed = frame.getUncompressedSize();
+    if (uncompressed >= threshold) {
+      // The frame is also valid for this connection, so send it as-is. Only the header is written
+      // out; the compressed data is sent from the buffer it is already in, which may be shared
+      // with other connections.
+      int frameLength = ProtocolUtils.varIntBytes(uncompressed) + compressed.readableBytes();
+      checkFrameLength(frameLength);
+      ByteBuf header = ctx.alloc().buffer(FRAME_LENGTH_SIZE + 5);
+      ProtocolUtils.writeVarInt(header, frameLength);
+      ProtocolUtils.writeVarInt(header, uncompressed);
+      return ctx.alloc().compositeBuffer(2)
+          .addComponents(true, header, compressed.retain());
+    }
+
+    // This connection uses a higher threshold, so the packet must be sent uncompressed.
+    ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor, compressed);
+    ByteBuf out = MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor,
+        FRAME_LENGTH_SIZE + 1 + uncompressed);
+    try {
+      out.writeMedium(0);
+      out.writeByte(0);
+      compressor.inflate(compatibleIn, out, uncompressed);
+      int inflated = out.readableBytes() - FRAME_LENGTH_SIZE - 1;
+      checkFrame(uncompressed == inflated, "Mismatched compression sizes (got %s, expected %s)",
+          inflated, uncompressed);
+      writeFrameLength(out, 0);
+      return out;
+    } catch (Exception e) {
+      out.release();
+      throw e;
+    } finally {
+      compatibleIn.release();
+    }
   }
 
   @Override
   protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
+    int frameStart = out.writerIndex();
+    out.writeMedium(0); // The frame length is filled in once we know it.
+
     int uncompressed = msg.readableBytes();
     if (uncompressed <= threshold) {
       // Under the threshold, there is nothing to do.
       ProtocolUtils.writeVarInt(out, 0);
       out.writeBytes(msg);
+    } else if (decision == Decision.STORE) {
+      if (incompressible) {
+        NetworkMetrics.incompressibleSkipped(uncompressed);
+      } else {
+        NetworkMetrics.compressionSkipped(uncompressed);
+      }
+      ProtocolUtils.writeVarInt(out, 0);
+      out.writeBytes(msg);
     } else {
+      VelocityCompressor selected = compressor;
+      if (decision == Decision.FAST) {
+        NetworkMetrics.fastCompression();
+        selected = fastCompressor();
+      }
+
+      int packetId = CompressibilityProbe.packetId(msg);
       ProtocolUtils.writeVarInt(out, uncompressed);
-      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), compressor, msg);
+      int initialCapacity = out.capacity();
+      int compressedStart = out.writerIndex();
+      long start = System.nanoTime();
+      ByteBuf compatibleIn = MoreByteBufUtils.ensureCompatible(ctx.alloc(), selected, msg);
       try {
-        compressor.deflate(compatibleIn, out);
+        selected.deflate(compatibleIn, out);
       } finally {
         compatibleIn.release();
       }
+      NetworkMetrics.deflated(uncompressed, System.nanoTime() - start);
+
+      int compressed = out.writerIndex() - compressedStart;
+      compressionRatio.record((int) ((((long) compressed << RATIO_SHIFT) + uncompressed - 1)
+          / uncompressed));
+      probe.record(packetId, uncompressed, compressed);
+      if (out.capacity() > initialCapacity) {
+        NetworkMetrics.compressBufferGrown();
+      }
+    }
+
+    writeFrameLength(out, frameStart);
+  }
+
+  private static void writeFrameLength(ByteBuf out, int frameStart) {
+    int frameLength = out.writerIndex() - frameStart - FRAME_LENGTH_SIZE;
+    checkFrameLength(frameLength);
+
+    int writerIndex = out.writerIndex();
+    out.writerIndex(frameStart);
+    ProtocolUtils.write21BitVarInt(out, frameLength);
+    out.writerIndex(writerIndex);
+  }
+
+  private static void checkFrameLength(int frameLength) {
+    if (frameLength > MAXIMUM_FRAME_LENGTH) {
+      throw new EncoderException("Packet too large: " + frameLength + " bytes (maximum "
+          + MAXIMUM_FRAME_LENGTH + ")");
     }
   }
 
   @Override
   protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect)
       throws Exception {
-    int initialBufferSize = msg.readableBytes() <= threshold ? msg.readableBytes() + 1 :
-        msg.readableBytes() / 3;
+    int uncompressed = msg.readableBytes();
+    int initialBufferSize;
+    if (uncompressed > threshold) {
+      incompressible = !probe.shouldCompress(CompressibilityProbe.packetId(msg), msg);
+      if (incompressible) {
+        decision = Decision.STORE;
+      } else if (policy != null) {
+        decision = policy.decide(ctx.channel(), uncompressed);
+      } else {
+        decision = Decision.CONFIGURED;
+      }
+    }
+    if (uncompressed <= threshold || decision == Decision.STORE) {
+      initialBufferSize = FRAME_LENGTH_SIZE + 1 + uncompressed;
+    } else {
+      // Guess the compressed size from how well recent packets compressed.
+      long expected = ((long) uncompressed * compressionRatio.guess()) >> RATIO_SHIFT;
+      initialBufferSize = FRAME_LENGTH_SIZE + ProtocolUtils.varIntBytes(uncompressed)
+          + (int) expected;
+    }
     return MoreByteBufUtils.preferredBuffer(ctx.alloc(), compressor, initialBufferSize);
   }
 
+  private VelocityCompressor fastCompressor() {
+    VelocityCompressor fastCompressor = this.fastCompressor;
+    if (fastCompressor == null) {
+      fastCompressor = Natives.compress.get().create(CompressionPolicy.FAST_LEVEL);
+      this.fastCompressor = fastCompressor;
+    }
+    return fastCompressor;
+  }
+
   @Override
   public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
     compressor.dispose();
+    if (fastCompressor != null) {
+      fastCompressor.dispose();
+    }
   }
 }
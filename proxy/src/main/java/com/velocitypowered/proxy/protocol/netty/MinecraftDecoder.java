@@ -4,18 +4,24 @@ import com.google.common.base.Preconditions;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.RetainedFramePacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.CorruptedFrameException;
 import io.netty.handler.codec.MessageToMessageDecoder;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
 
   private final ProtocolUtils.Direction direction;
   private StateRegistry state;
   private StateRegistry.PacketRegistry.ProtocolRegistry registry;
+  private @Nullable Set<Class<? extends MinecraftPacket>> interestedPackets;
+  private @Nullable BitSet interestedIds;
 
   /**
    * Creates a new {@code MinecraftDecoder} decoding packets from the specified {@code direction}.
@@ -38,7 +44,7 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
     ByteBuf slice = msg.slice();
 
     int packetId = ProtocolUtils.readVarInt(msg);
-    MinecraftPacket packet = this.registry.createPacket(packetId);
+    MinecraftPacket packet = isInterested(packetId) ? this.registry.createPacket(packetId) : null;
     if (packet == null) {
       msg.skipBytes(msg.readableBytes());
       out.add(slice.retain());
@@ -57,12 +63,44 @@ public class MinecraftDecoder extends MessageToMessageDecoder<ByteBuf> {
                 + " Protocol " + registry.version + " State " + state + " ID " + Integer
                 .toHexString(packetId));
       }
+      if (packet instanceof RetainedFramePacket) {
+        ((RetainedFramePacket) packet).retainFrame(slice.retain(), registry);
+      }
       out.add(packet);
     }
   }
 
+  private boolean isInterested(int packetId) {
+    @Nullable BitSet ids = this.interestedIds;
+    return ids == null || (packetId >= 0 && ids.get(packetId));
+  }
+
+  /**
+   * Determines whether or not this decoder would decode the packet with the specified ID.
+   *
+   * @param packetId the packet ID
+   * @return whether the packet would be decoded
+   */
+  public boolean shouldDecode(int packetId) {
+    return isInterested(packetId) && registry.containsPacket(packetId);
+  }
+
   public void setProtocolVersion(ProtocolVersion protocolVersion) {
     this.registry = direction.getProtocolRegistry(state, protocolVersion);
+    this.interestedIds = interestedPackets == null ? null
+        : registry.getPacketIds(interestedPackets);
+  }
+
+  /**
+   * Restricts decoding to the specified packets. Any other packet is passed on as a raw
+   * {@link ByteBuf}.
+   *
+   * @param interestedPackets the packets to decode, or {@code null} to decode all packets
+   */
+  public void setInterestedPackets(
+      @Nullable Set<Class<? extends MinecraftPacket>> interestedPackets) {
+    this.interestedPackets = interestedPackets;
+    this.setProtocolVersion(registry.version);
   }
 
   public void setState(StateRegistry state) {
@@ -2,15 +2,29 @@ package com.velocitypowered.proxy.protocol.netty;
 
 import com.google.common.base.Preconditions;
 import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.proxy.network.NetworkMetrics;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.RetainedFramePacket;
 import com.velocitypowered.proxy.protocol.StateRegistry;
+import com.velocitypowered.proxy.protocol.util.AdaptiveSizeHint;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 public class MinecraftEncoder extends MessageToByteEncoder<MinecraftPacket> {
 
+  // Packets of the same type tend to be of similar sizes, so each type gets its own hint, shared by
+  // all connections.
+  private static final ClassValue<AdaptiveSizeHint> SIZE_HINTS =
+      new ClassValue<AdaptiveSizeHint>() {
+        @Override
+        protected AdaptiveSizeHint computeValue(Class<?> type) {
+          return new AdaptiveSizeHint(256, 16, 1 << 21);
+        }
+      };
+
   private final ProtocolUtils.Direction direction;
   private StateRegistry state;
   private StateRegistry.PacketRegistry.ProtocolRegistry registry;
@@ -27,11 +41,39 @@ public class MinecraftEncoder extends MessageToByteEncoder<MinecraftPacket> {
     this.state = StateRegistry.HANDSHAKE;
   }
 
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
+      throws Exception {
+    if (msg instanceof RetainedFramePacket) {
+      // If the packet is unmodified and was decoded using the same protocol, reuse its frame.
+      ByteBuf frame = ((RetainedFramePacket) msg).takeFrame(registry);
+      if (frame != null) {
+        ctx.write(frame, promise);
+        return;
+      }
+    }
+    super.write(ctx, msg, promise);
+  }
+
   @Override
   protected void encode(ChannelHandlerContext ctx, MinecraftPacket msg, ByteBuf out) {
+    int initialCapacity = out.capacity();
     int packetId = this.registry.getPacketId(msg);
     ProtocolUtils.writeVarInt(out, packetId);
     msg.encode(out, direction, registry.version);
+
+    SIZE_HINTS.get(msg.getClass()).record(out.readableBytes());
+    if (out.capacity() > initialCapacity) {
+      NetworkMetrics.encodeBufferGrown();
+    }
+  }
+
+  @Override
+  protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, MinecraftPacket msg,
+      boolean preferDirect) {
+    int initialCapacity = SIZE_HINTS.get(msg.getClass()).guess();
+    return preferDirect ? ctx.alloc().ioBuffer(initialCapacity)
+        : ctx.alloc().heapBuffer(initialCapacity);
   }
 
   public void setProtocolVersion(final ProtocolVersion protocolVersion) {
@@ -1,6 +1,5 @@
 package com.velocitypowered.proxy.protocol.netty;
 
-import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
@@ -9,38 +8,46 @@ import java.util.List;
 
 public class MinecraftVarintFrameDecoder extends ByteToMessageDecoder {
 
-  @Override
-  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-    if (!in.isReadable()) {
-      return;
-    }
+  private static final int MAXIMUM_LENGTH_BYTES = 3;
 
-    int origReaderIndex = in.readerIndex();
-    for (int i = 0; i < 3; i++) {
-      if (!in.isReadable()) {
-        in.readerIndex(origReaderIndex);
-        return;
-      }
+  public MinecraftVarintFrameDecoder() {
+    // Large packets often arrive over several reads. Composing the reads avoids copying the
+    // partial packet into a bigger buffer every time more of it arrives.
+    setCumulator(COMPOSITE_CUMULATOR);
+  }
 
-      byte read = in.readByte();
-      if (read >= 0) {
-        // Make sure reader index of length buffer is returned to the beginning
-        in.readerIndex(origReaderIndex);
-        int packetLength = ProtocolUtils.readVarInt(in);
-        if (packetLength == 0) {
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+    while (in.isReadable()) {
+      int readerIndex = in.readerIndex();
+      int readable = in.readableBytes();
+
+      // Read the length without moving the reader index, so we don't need to rewind if the frame
+      // is incomplete.
+      int packetLength = 0;
+      int lengthBytes = 0;
+      while (true) {
+        if (lengthBytes == readable) {
           return;
         }
-
-        if (in.readableBytes() < packetLength) {
-          in.readerIndex(origReaderIndex);
-          return;
+        byte read = in.getByte(readerIndex + lengthBytes);
+        packetLength |= (read & 0x7F) << (lengthBytes++ * 7);
+        if (read >= 0) {
+          break;
         }
+        if (lengthBytes == MAXIMUM_LENGTH_BYTES) {
+          throw new CorruptedFrameException("VarInt too big");
+        }
+      }
 
-        out.add(in.readRetainedSlice(packetLength));
+      if (readable - lengthBytes < packetLength) {
         return;
       }
-    }
 
-    throw new CorruptedFrameException("VarInt too big");
+      if (packetLength > 0) {
+        out.add(in.retainedSlice(readerIndex + lengthBytes, packetLength));
+      }
+      in.readerIndex(readerIndex + lengthBytes + packetLength);
+    }
   }
 }
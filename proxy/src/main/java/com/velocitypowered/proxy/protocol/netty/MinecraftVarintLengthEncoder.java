@@ -4,11 +4,10 @@ import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageEncoder;
-import java.util.List;
+import io.netty.handler.codec.MessageToByteEncoder;
 
 @ChannelHandler.Sharable
-public class MinecraftVarintLengthEncoder extends MessageToMessageEncoder<ByteBuf> {
+public class MinecraftVarintLengthEncoder extends MessageToByteEncoder<ByteBuf> {
 
   public static final MinecraftVarintLengthEncoder INSTANCE = new MinecraftVarintLengthEncoder();
 
@@ -16,11 +15,16 @@ public class MinecraftVarintLengthEncoder extends MessageToMessageEncoder<ByteBu
   }
 
   @Override
-  protected void encode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> list)
+  protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
+    ProtocolUtils.writeVarInt(out, msg.readableBytes());
+    out.writeBytes(msg);
+  }
+
+  @Override
+  protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect)
       throws Exception {
-    ByteBuf lengthBuf = ctx.alloc().buffer(5); // the maximum size of a varint
-    ProtocolUtils.writeVarInt(lengthBuf, buf.readableBytes());
-    list.add(lengthBuf);
-    list.add(buf.retain());
+    // Allocate exactly what we need, so that each frame is written as a single buffer.
+    int frameSize = ProtocolUtils.varIntBytes(msg.readableBytes()) + msg.readableBytes();
+    return preferDirect ? ctx.alloc().ioBuffer(frameSize) : ctx.alloc().heapBuffer(frameSize);
   }
 }
@@ -0,0 +1,110 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static com.velocitypowered.proxy.protocol.util.NettyPreconditions.checkFrame;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Decodes the binary header of version 2 of HAProxy's PROXY protocol, which a load balancer
+ * sends ahead of everything else on a connection. If the header carries the original client's
+ * address, it is passed on as an {@link InetSocketAddress}. The decoder then removes itself from
+ * the pipeline, passing on anything that follows the header unchanged.
+ *
+ * <p>Unlike Netty's {@code HAProxyMessageDecoder}, the text-based version 1 of the protocol is
+ * not supported, and addresses are read straight from the header without being converted to and
+ * from strings.</p>
+ */
+public class ProxyProtocolV2Decoder extends ByteToMessageDecoder {
+
+  private static final byte[] SIGNATURE = {
+      0x0D, 0x0A, 0x0D, 0x0A, 0x00, 0x0D, 0x0A, 0x51, 0x55, 0x49, 0x54, 0x0A
+  };
+  private static final int HEADER_LENGTH = 16;
+
+  private static final int VERSION_2 = 0x20;
+  private static final int COMMAND_LOCAL = 0x00;
+  private static final int COMMAND_PROXY = 0x01;
+  private static final int FAMILY_INET = 0x10;
+  private static final int FAMILY_INET6 = 0x20;
+
+  private boolean finished;
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    super.channelRead(ctx, msg);
+    if (finished) {
+      // Only remove ourselves once the address has been passed on, as anything that follows the
+      // header is passed on as soon as we are removed.
+      ctx.pipeline().remove(this);
+    }
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out)
+      throws Exception {
+    if (finished) {
+      return;
+    }
+
+    int start = in.readerIndex();
+    int available = Math.min(in.readableBytes(), SIGNATURE.length);
+    for (int i = 0; i < available; i++) {
+      checkFrame(in.getByte(start + i) == SIGNATURE[i], "Invalid PROXY protocol v2 signature");
+    }
+    if (in.readableBytes() < HEADER_LENGTH) {
+      return;
+    }
+
+    int versionAndCommand = in.getUnsignedByte(start + 12);
+    int familyAndTransport = in.getUnsignedByte(start + 13);
+    int length = in.getUnsignedShort(start + 14);
+    if (in.readableBytes() < HEADER_LENGTH + length) {
+      return;
+    }
+
+    checkFrame((versionAndCommand & 0xF0) == VERSION_2, "Unsupported PROXY protocol version %s",
+        versionAndCommand >> 4);
+    int command = versionAndCommand & 0x0F;
+    if (command == COMMAND_PROXY) {
+      InetSocketAddress source = readSourceAddress(in, start + HEADER_LENGTH,
+          familyAndTransport & 0xF0, length);
+      if (source != null) {
+        out.add(source);
+      }
+    } else {
+      // LOCAL connections are made by the load balancer itself, for example for health checks.
+      checkFrame(command == COMMAND_LOCAL, "Unknown PROXY protocol command %s", command);
+    }
+
+    in.skipBytes(HEADER_LENGTH + length);
+    finished = true;
+  }
+
+  private static @Nullable InetSocketAddress readSourceAddress(ByteBuf in, int index, int family,
+      int length) throws UnknownHostException {
+    int addressLength;
+    if (family == FAMILY_INET) {
+      addressLength = 4;
+    } else if (family == FAMILY_INET6) {
+      addressLength = 16;
+    } else {
+      // Unspecified or a UNIX socket, so there is no address we could use.
+      return null;
+    }
+
+    // The source and destination addresses are followed by the source and destination ports.
+    checkFrame(length >= addressLength * 2 + 4, "PROXY protocol address block too short (%s)",
+        length);
+    byte[] address = new byte[addressLength];
+    in.getBytes(index, address);
+    int port = in.getUnsignedShort(index + addressLength * 2);
+    return new InetSocketAddress(InetAddress.getByAddress(address), port);
+  }
+}
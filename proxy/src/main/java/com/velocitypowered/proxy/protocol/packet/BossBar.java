@@ -2,13 +2,13 @@ package com.velocitypowered.proxy.protocol.packet;
 
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
-import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.RetainedFramePacket;
 import io.netty.buffer.ByteBuf;
 import java.util.UUID;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class BossBar implements MinecraftPacket {
+public class BossBar extends RetainedFramePacket {
 
   public static final int ADD = 0;
   public static final int REMOVE = 1;
@@ -33,6 +33,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setUuid(UUID uuid) {
     this.uuid = uuid;
+    markDirty();
   }
 
   public int getAction() {
@@ -41,6 +42,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setAction(int action) {
     this.action = action;
+    markDirty();
   }
 
   public @Nullable String getName() {
@@ -49,6 +51,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setName(String name) {
     this.name = name;
+    markDirty();
   }
 
   public float getPercent() {
@@ -57,6 +60,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setPercent(float percent) {
     this.percent = percent;
+    markDirty();
   }
 
   public int getColor() {
@@ -65,6 +69,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setColor(int color) {
     this.color = color;
+    markDirty();
   }
 
   public int getOverlay() {
@@ -73,6 +78,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setOverlay(int overlay) {
     this.overlay = overlay;
+    markDirty();
   }
 
   public short getFlags() {
@@ -81,6 +87,7 @@ public class BossBar implements MinecraftPacket {
 
   public void setFlags(short flags) {
     this.flags = flags;
+    markDirty();
   }
 
   @Override
@@ -3,29 +3,50 @@ package com.velocitypowered.proxy.protocol.packet;
 import com.google.common.base.Preconditions;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
-import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.PooledPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
+import io.netty.util.Recycler.Handle;
 import net.kyori.text.Component;
 import net.kyori.text.serializer.ComponentSerializers;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class Chat implements MinecraftPacket {
+public class Chat implements PooledPacket {
 
   public static final byte CHAT_TYPE = (byte) 0;
   public static final int MAX_SERVERBOUND_MESSAGE_LENGTH = 256;
 
+  private static final Recycler<Chat> RECYCLER = new Recycler<Chat>() {
+    @Override
+    protected Chat newObject(Handle<Chat> handle) {
+      return new Chat(handle);
+    }
+  };
+
+  private final @Nullable Handle<Chat> handle;
+  private boolean escaped;
   private @Nullable String message;
   private byte type;
 
   public Chat() {
+    this.handle = null;
   }
 
   public Chat(String message, byte type) {
+    this.handle = null;
     this.message = message;
     this.type = type;
   }
 
+  private Chat(Handle<Chat> handle) {
+    this.handle = handle;
+  }
+
+  public static Chat newInstance() {
+    return POOLING_ENABLED ? RECYCLER.get() : new Chat();
+  }
+
   public String getMessage() {
     if (message == null) {
       throw new IllegalStateException("Message is not specified");
@@ -77,6 +98,20 @@ public class Chat implements MinecraftPacket {
     return handler.handle(this);
   }
 
+  @Override
+  public void recycle() {
+    if (handle != null && !escaped) {
+      message = null;
+      type = 0;
+      handle.recycle(this);
+    }
+  }
+
+  @Override
+  public void escape() {
+    escaped = true;
+  }
+
   public static Chat createClientbound(Component component) {
     return createClientbound(component, CHAT_TYPE);
   }
@@ -2,14 +2,38 @@ package com.velocitypowered.proxy.protocol.packet;
 
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
-import com.velocitypowered.proxy.protocol.MinecraftPacket;
+import com.velocitypowered.proxy.protocol.PooledPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
+import io.netty.util.Recycler.Handle;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class KeepAlive implements MinecraftPacket {
+public class KeepAlive implements PooledPacket {
 
+  private static final Recycler<KeepAlive> RECYCLER = new Recycler<KeepAlive>() {
+    @Override
+    protected KeepAlive newObject(Handle<KeepAlive> handle) {
+      return new KeepAlive(handle);
+    }
+  };
+
+  private final @Nullable Handle<KeepAlive> handle;
+  private boolean escaped;
   private long randomId;
 
+  public KeepAlive() {
+    this.handle = null;
+  }
+
+  private KeepAlive(Handle<KeepAlive> handle) {
+    this.handle = handle;
+  }
+
+  public static KeepAlive newInstance() {
+    return POOLING_ENABLED ? RECYCLER.get() : new KeepAlive();
+  }
+
   public long getRandomId() {
     return randomId;
   }
@@ -47,4 +71,17 @@ public class KeepAlive implements MinecraftPacket {
   public boolean handle(MinecraftSessionHandler handler) {
     return handler.handle(this);
   }
+
+  @Override
+  public void recycle() {
+    if (handle != null && !escaped) {
+      randomId = 0;
+      handle.recycle(this);
+    }
+  }
+
+  @Override
+  public void escape() {
+    escaped = true;
+  }
 }
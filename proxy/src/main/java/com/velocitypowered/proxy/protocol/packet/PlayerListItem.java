@@ -5,8 +5,8 @@ import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.proxy.player.TabListEntry;
 import com.velocitypowered.api.util.GameProfile;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
-import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.RetainedFramePacket;
 import io.netty.buffer.ByteBuf;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +15,7 @@ import net.kyori.text.Component;
 import net.kyori.text.serializer.ComponentSerializers;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public class PlayerListItem implements MinecraftPacket {
+public class PlayerListItem extends RetainedFramePacket {
 
   public static final int ADD_PLAYER = 0;
   public static final int UPDATE_GAMEMODE = 1;
@@ -37,6 +37,11 @@ public class PlayerListItem implements MinecraftPacket {
     return action;
   }
 
+  /**
+   * Returns the items in this packet. If you modify the returned list or its items, call
+   * {@link #markDirty()} so that the packet is encoded again.
+   * @return the items in this packet
+   */
   public List<Item> getItems() {
     return items;
   }
@@ -6,12 +6,15 @@ import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.connection.MinecraftSessionHandler;
 import com.velocitypowered.proxy.protocol.MinecraftPacket;
 import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import com.velocitypowered.proxy.protocol.util.AsciiStringCache;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class PluginMessage implements MinecraftPacket {
 
+  private static final AsciiStringCache CHANNEL_NAMES = new AsciiStringCache(256, 64);
+
   private @Nullable String channel;
   private byte[] data = EMPTY_BYTE_ARRAY;
 
@@ -44,7 +47,7 @@ public class PluginMessage implements MinecraftPacket {
 
   @Override
   public void decode(ByteBuf buf, ProtocolUtils.Direction direction, ProtocolVersion version) {
-    this.channel = ProtocolUtils.readString(buf);
+    this.channel = ProtocolUtils.readString(buf, CHANNEL_NAMES);
     this.data = new byte[buf.readableBytes()];
     buf.readBytes(data);
   }
@@ -0,0 +1,61 @@
+package com.velocitypowered.proxy.protocol.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Guesses how large the next buffer of some kind will need to be, based on the sizes seen so far.
+ * Like Netty's {@code AdaptiveRecvByteBufAllocator}, the guess grows as soon as a larger size is
+ * seen, but only shrinks gradually, so that buffers rarely need to be grown while they are being
+ * written to.
+ *
+ * <p>Updates from several threads may race, in which case some of them are lost. This is fine for
+ * a hint.</p>
+ */
+public final class AdaptiveSizeHint {
+
+  private static final int DECAY_SHIFT = 3;
+
+  private final int minimum;
+  private final int maximum;
+  private volatile int guess;
+
+  /**
+   * Creates a new size hint.
+   * @param initial the initial guess
+   * @param minimum the smallest guess to make
+   * @param maximum the largest guess to make
+   */
+  public AdaptiveSizeHint(int initial, int minimum, int maximum) {
+    Preconditions.checkArgument(minimum <= initial && initial <= maximum,
+        "Initial guess %s is not within %s and %s", initial, minimum, maximum);
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.guess = initial;
+  }
+
+  /**
+   * Returns the current guess.
+   * @return the size the next buffer is expected to need
+   */
+  public int guess() {
+    return guess;
+  }
+
+  /**
+   * Records the size a buffer actually needed.
+   * @param actual the size that was needed
+   */
+  public void record(int actual) {
+    int current = guess;
+    int next;
+    if (actual >= current) {
+      next = Math.min(actual, maximum);
+    } else {
+      // Move an eighth of the way towards the smaller size, rounding towards the current guess.
+      next = Math.max(current - ((current - actual) >> DECAY_SHIFT), minimum);
+    }
+    if (next != current) {
+      guess = next;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.velocitypowered.proxy.protocol.util;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A small, lossy cache of short ASCII strings, used to avoid allocating a new string every time a
+ * frequently repeated value (such as a plugin channel name) is decoded.
+ *
+ * <p>The cache is direct-mapped: each string can only live in one slot, and a new string replaces
+ * whatever was in its slot before. It is safe to share between threads, as strings are immutable
+ * and a racing reader will at worst miss the cache.</p>
+ */
+public final class AsciiStringCache {
+
+  private final String[] entries;
+  private final int maxLength;
+
+  /**
+   * Creates a new cache.
+   * @param size the number of slots in the cache, which must be a power of two
+   * @param maxLength the length of the longest string that will be cached
+   */
+  public AsciiStringCache(int size, int maxLength) {
+    Preconditions.checkArgument(size > 0 && (size & (size - 1)) == 0,
+        "size must be a power of two");
+    Preconditions.checkArgument(maxLength > 0, "maxLength must be positive");
+    this.entries = new String[size];
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * Decodes the UTF-8 string of {@code length} bytes starting at {@code index} in {@code buf},
+   * returning a cached instance if one is available. Long or non-ASCII strings are decoded without
+   * being cached. The reader index of {@code buf} is not changed.
+   * @param buf the buffer to read from
+   * @param index the index of the first byte of the string
+   * @param length the length of the string, in bytes
+   * @return the decoded string
+   */
+  public String get(ByteBuf buf, int index, int length) {
+    if (length > maxLength) {
+      return buf.toString(index, length, StandardCharsets.UTF_8);
+    }
+
+    // Compute String.hashCode() of the would-be string, which for ASCII is the same as hashing the
+    // bytes. This lets us reject most mismatches without comparing the contents.
+    int hash = 0;
+    int bits = 0;
+    for (int i = index; i < index + length; i++) {
+      byte b = buf.getByte(i);
+      bits |= b;
+      hash = 31 * hash + b;
+    }
+    if (bits < 0) {
+      return buf.toString(index, length, StandardCharsets.UTF_8);
+    }
+
+    int slot = (hash ^ (hash >>> 16)) & (entries.length - 1);
+    String cached = entries[slot];
+    if (cached != null && cached.hashCode() == hash && matches(cached, buf, index, length)) {
+      return cached;
+    }
+
+    String str = buf.toString(index, length, StandardCharsets.ISO_8859_1);
+    entries[slot] = str;
+    return str;
+  }
+
+  private static boolean matches(String str, ByteBuf buf, int index, int length) {
+    if (str.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (str.charAt(i) != buf.getByte(index + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -11,6 +11,7 @@ import com.velocitypowered.proxy.protocol.ProtocolUtils;
 import com.velocitypowered.proxy.protocol.packet.PluginMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.ByteProcessor;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
@@ -23,6 +24,7 @@ public class PluginMessageUtil {
   private static final String REGISTER_CHANNEL = "minecraft:register";
   private static final String UNREGISTER_CHANNEL_LEGACY = "UNREGISTER";
   private static final String UNREGISTER_CHANNEL = "minecraft:unregister";
+  private static final AsciiStringCache CHANNEL_NAMES = new AsciiStringCache(256, 64);
 
   private PluginMessageUtil() {
     throw new AssertionError();
@@ -70,8 +72,20 @@ public class PluginMessageUtil {
     checkNotNull(message, "message");
     checkArgument(isRegister(message) || isUnregister(message), "Unknown channel type %s",
             message.getChannel());
-    String channels = new String(message.getData(), StandardCharsets.UTF_8);
-    return ImmutableList.copyOf(channels.split("\0"));
+    ByteBuf data = Unpooled.wrappedBuffer(message.getData());
+    ImmutableList.Builder<String> channels = ImmutableList.builder();
+    while (data.isReadable()) {
+      int end = data.forEachByte(ByteProcessor.FIND_NUL);
+      if (end == -1) {
+        end = data.writerIndex();
+      }
+      int length = end - data.readerIndex();
+      if (length > 0) {
+        channels.add(CHANNEL_NAMES.get(data, data.readerIndex(), length));
+      }
+      data.readerIndex(Math.min(end + 1, data.writerIndex()));
+    }
+    return channels.build();
   }
 
   /**
@@ -24,10 +24,12 @@ import com.velocitypowered.proxy.protocol.netty.MinecraftDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftEncoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintFrameDecoder;
 import com.velocitypowered.proxy.protocol.netty.MinecraftVarintLengthEncoder;
+import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import java.util.Collection;
 import java.util.Set;
@@ -59,11 +61,30 @@ public class VelocityRegisteredServer implements RegisteredServer {
 
   @Override
   public CompletableFuture<ServerPing> ping() {
+    return ping((EventLoop) null);
+  }
+
+  @Override
+  public CompletableFuture<ServerPing> ping(Player player) {
+    Preconditions.checkArgument(player instanceof ConnectedPlayer, "Not a Velocity player");
+    return ping(((ConnectedPlayer) player).getMinecraftConnection().eventLoop());
+  }
+
+  /**
+   * Pings the specified server using the specified event loop. Pings made on behalf of a player
+   * should use the player's event loop, so that the ping and whatever is done with its result stay
+   * on the same thread as the rest of that player's work.
+   * @param loop the event loop to use, or {@code null} to use any event loop
+   * @return the server list ping response
+   */
+  public CompletableFuture<ServerPing> ping(@Nullable EventLoop loop) {
     if (server == null) {
       throw new IllegalStateException("No Velocity proxy instance available");
     }
     CompletableFuture<ServerPing> pingFuture = new CompletableFuture<>();
-    server.initializeGenericBootstrap()
+    Bootstrap bootstrap = loop == null ? server.initializeGenericBootstrap()
+        : server.initializeGenericBootstrap(loop);
+    bootstrap
         .handler(new ChannelInitializer<Channel>() {
           @Override
           protected void initChannel(Channel ch) throws Exception {
@@ -0,0 +1,81 @@
+package com.velocitypowered.proxy.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+
+/**
+ * A range of IP addresses, written either as a single address such as {@code 10.0.0.1} or in CIDR
+ * notation such as {@code 10.0.0.0/8}.
+ */
+public final class AddressRange {
+
+  private final InetAddress address;
+  private final byte[] network;
+  private final int prefixLength;
+
+  private AddressRange(InetAddress address, int prefixLength) {
+    this.address = address;
+    this.network = address.getAddress();
+    this.prefixLength = prefixLength;
+  }
+
+  /**
+   * Parses an address range. No DNS lookups are made.
+   *
+   * @param range the range to parse
+   * @return the parsed range
+   * @throws IllegalArgumentException if the range is not valid
+   */
+  public static AddressRange parse(String range) {
+    Preconditions.checkNotNull(range, "range");
+    int slash = range.indexOf('/');
+    InetAddress address = InetAddresses.forString(
+        (slash == -1 ? range : range.substring(0, slash)).trim());
+
+    int maximumPrefixLength = address.getAddress().length * 8;
+    int prefixLength = maximumPrefixLength;
+    if (slash != -1) {
+      try {
+        prefixLength = Integer.parseInt(range.substring(slash + 1).trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid prefix length in " + range, e);
+      }
+      Preconditions.checkArgument(prefixLength >= 0 && prefixLength <= maximumPrefixLength,
+          "Invalid prefix length in %s", range);
+    }
+    return new AddressRange(address, prefixLength);
+  }
+
+  /**
+   * Determines whether or not the address is within this range.
+   *
+   * @param address the address to check
+   * @return whether or not the address is within this range
+   */
+  public boolean contains(InetAddress address) {
+    byte[] other = address.getAddress();
+    if (other.length != network.length) {
+      return false;
+    }
+
+    int wholeBytes = prefixLength / 8;
+    for (int i = 0; i < wholeBytes; i++) {
+      if (other[i] != network[i]) {
+        return false;
+      }
+    }
+
+    int remainingBits = prefixLength % 8;
+    if (remainingBits == 0) {
+      return true;
+    }
+    int mask = 0xFF << (8 - remainingBits);
+    return (other[wholeBytes] & mask) == (network[wholeBytes] & mask);
+  }
+
+  @Override
+  public String toString() {
+    return InetAddresses.toAddrString(address) + "/" + prefixLength;
+  }
+}
@@ -0,0 +1,61 @@
+package com.velocitypowered.proxy.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.velocitypowered.proxy.connection.CrossLoopWriteQueue.Action;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CrossLoopWriteQueueTest {
+
+  @Test
+  void writeBeforeCloseIsDelivered() {
+    // Closing writes ahead of the first handler, so there has to be one.
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter());
+    MinecraftConnection connection = new MinecraftConnection(channel, null);
+    CrossLoopWriteQueue queue = new CrossLoopWriteQueue(channel.eventLoop());
+
+    queue.enqueue(connection, Unpooled.wrappedBuffer(new byte[]{1, 2, 3}), Action.FLUSH);
+    queue.enqueue(connection, null, Action.CLOSE);
+    channel.runPendingTasks();
+
+    ByteBuf written = channel.readOutbound();
+    try {
+      assertEquals(3, written.readableBytes());
+    } finally {
+      written.release();
+    }
+    assertFalse(channel.isActive());
+  }
+
+  @Test
+  void writesAreFlushedOnce() {
+    AtomicInteger flushes = new AtomicInteger();
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+      @Override
+      public void flush(ChannelHandlerContext ctx) throws Exception {
+        flushes.incrementAndGet();
+        super.flush(ctx);
+      }
+    });
+    MinecraftConnection connection = new MinecraftConnection(channel, null);
+    CrossLoopWriteQueue queue = new CrossLoopWriteQueue(channel.eventLoop());
+    flushes.set(0);
+
+    queue.enqueue(connection, Unpooled.wrappedBuffer(new byte[]{1}), Action.NONE);
+    queue.enqueue(connection, Unpooled.wrappedBuffer(new byte[]{2}), Action.FLUSH);
+    queue.enqueue(connection, Unpooled.wrappedBuffer(new byte[]{3}), Action.FLUSH);
+    queue.enqueue(connection, null, Action.FLUSH);
+    channel.runPendingTasks();
+
+    assertEquals(1, flushes.get());
+    assertEquals(3, channel.outboundMessages().size());
+    channel.finishAndReleaseAll();
+  }
+}
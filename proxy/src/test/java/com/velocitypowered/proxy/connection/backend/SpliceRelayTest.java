@@ -0,0 +1,96 @@
+package com.velocitypowered.proxy.connection.backend;
+
+import static com.velocitypowered.proxy.network.Connections.CIPHER_ENCODER;
+import static com.velocitypowered.proxy.network.Connections.SPLICE_GUARD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.velocitypowered.proxy.connection.MinecraftConnection;
+import com.velocitypowered.proxy.connection.backend.SpliceRelay.SpliceWriteGuard;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollSocketChannel;
+import org.junit.jupiter.api.Test;
+
+class SpliceRelayTest {
+
+  @Test
+  void guardFailsWrites() {
+    EmbeddedChannel channel = new EmbeddedChannel(new SpliceWriteGuard());
+    ByteBuf msg = Unpooled.buffer().writeByte(1);
+
+    ChannelFuture future = channel.writeAndFlush(msg);
+    assertFalse(future.isSuccess());
+    assertTrue(future.cause() instanceof IllegalStateException);
+    assertEquals(0, msg.refCnt());
+    assertNull(channel.readOutbound());
+  }
+
+  @Test
+  void guardDropsVoidPromiseWritesWithoutClosing() {
+    EmbeddedChannel channel = new EmbeddedChannel(new SpliceWriteGuard());
+    ByteBuf msg = Unpooled.buffer().writeByte(1);
+
+    channel.writeAndFlush(msg, channel.voidPromise());
+    assertEquals(0, msg.refCnt());
+    assertTrue(channel.isActive());
+    channel.checkException();
+  }
+
+  @Test
+  void stopRemovesGuard() {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    MinecraftConnection clientMc = new MinecraftConnection(channel, null);
+    clientMc.setSpliced(true);
+    channel.pipeline().addLast(SPLICE_GUARD, new SpliceWriteGuard());
+
+    SpliceRelay.stop(clientMc);
+    assertFalse(clientMc.isSpliced());
+    assertNull(channel.pipeline().get(SPLICE_GUARD));
+  }
+
+  @Test
+  void notSupportedWhenDisabledOrNotEpoll() {
+    MinecraftConnection serverMc = new MinecraftConnection(new EmbeddedChannel(), null);
+    MinecraftConnection clientMc = new MinecraftConnection(new EmbeddedChannel(), null);
+    assertFalse(SpliceRelay.isSupported(false, serverMc, clientMc));
+    assertFalse(SpliceRelay.isSupported(true, serverMc, clientMc));
+  }
+
+  @Test
+  void supportedOnlyForUnencryptedLevelTriggeredEpoll() throws Exception {
+    assumeTrue(Epoll.isAvailable(), "epoll is not available");
+    EpollEventLoopGroup group = new EpollEventLoopGroup(1);
+    try {
+      EpollSocketChannel serverCh = new EpollSocketChannel();
+      EpollSocketChannel clientCh = new EpollSocketChannel();
+      group.register(serverCh).sync();
+      group.register(clientCh).sync();
+      MinecraftConnection serverMc = new MinecraftConnection(serverCh, null);
+      MinecraftConnection clientMc = new MinecraftConnection(clientCh, null);
+
+      serverCh.config().setEpollMode(EpollMode.EDGE_TRIGGERED);
+      assertFalse(SpliceRelay.isSupported(true, serverMc, clientMc));
+
+      serverCh.config().setEpollMode(EpollMode.LEVEL_TRIGGERED);
+      assertTrue(SpliceRelay.isSupported(true, serverMc, clientMc));
+
+      clientCh.pipeline().addLast(CIPHER_ENCODER, new ChannelOutboundHandlerAdapter());
+      assertFalse(SpliceRelay.isSupported(true, serverMc, clientMc));
+
+      serverCh.close().sync();
+      clientCh.close().sync();
+    } finally {
+      group.shutdownGracefully().sync();
+    }
+  }
+}
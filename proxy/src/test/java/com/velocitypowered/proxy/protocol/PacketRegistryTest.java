@@ -4,11 +4,17 @@ import static com.velocitypowered.api.network.ProtocolVersion.MINECRAFT_1_12;
 import static com.velocitypowered.api.network.ProtocolVersion.MINECRAFT_1_12_1;
 import static com.velocitypowered.api.network.ProtocolVersion.MINECRAFT_1_12_2;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.collect.ImmutableSet;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.proxy.protocol.packet.Handshake;
+import com.velocitypowered.proxy.protocol.packet.StatusPing;
+import java.util.BitSet;
 import org.junit.jupiter.api.Test;
 
 class PacketRegistryTest {
@@ -66,4 +72,29 @@ class PacketRegistryTest {
     assertEquals(Handshake.class,
         registry.getProtocolRegistry(MINECRAFT_1_12_2).createPacket(0x01).getClass());
   }
-}
\ No newline at end of file
+
+  @Test
+  void unregisteredIdsAndPacketsAreRejected() {
+    StateRegistry.PacketRegistry registry = setupRegistry();
+    StateRegistry.PacketRegistry.ProtocolRegistry protocolRegistry =
+        registry.getProtocolRegistry(MINECRAFT_1_12);
+    assertTrue(protocolRegistry.containsPacket(0x00));
+    for (int id : new int[]{-1, 0x01, Integer.MAX_VALUE}) {
+      assertFalse(protocolRegistry.containsPacket(id), "ID " + id + " was found in registry");
+      assertNull(protocolRegistry.createPacket(id), "ID " + id + " created a packet");
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> protocolRegistry.getPacketId(new StatusPing()));
+  }
+
+  @Test
+  void packetIdsOnlyIncludeRegisteredPackets() {
+    StateRegistry.PacketRegistry registry = setupRegistry();
+    BitSet ids = registry.getProtocolRegistry(MINECRAFT_1_12)
+        .getPacketIds(ImmutableSet.of(Handshake.class, StatusPing.class));
+    assertTrue(ids.get(0x00), "Handshake ID was not included");
+    assertEquals(1, ids.cardinality(), "Unregistered packet produced an ID");
+    assertFalse(registry.getProtocolRegistry(MINECRAFT_1_12)
+        .getPacketIds(ImmutableSet.of(StatusPing.class)).get(0x00));
+  }
+}
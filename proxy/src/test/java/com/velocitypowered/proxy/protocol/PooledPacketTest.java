@@ -0,0 +1,67 @@
+package com.velocitypowered.proxy.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import com.velocitypowered.proxy.protocol.packet.KeepAlive;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PooledPacketTest {
+
+  // The recycler only keeps some of the objects it has handed out, so give it a few chances.
+  private static final int ATTEMPTS = 64;
+
+  @Test
+  void recycledPacketIsResetBeforeReuse() {
+    assumeTrue(PooledPacket.POOLING_ENABLED, "Packet pooling is disabled");
+    Set<KeepAlive> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    boolean reused = false;
+    for (int i = 0; i < ATTEMPTS && !reused; i++) {
+      KeepAlive packet = KeepAlive.newInstance();
+      if (!seen.add(packet)) {
+        reused = true;
+        assertEquals(0, packet.getRandomId());
+      }
+      packet.setRandomId(i + 1);
+      packet.recycle();
+    }
+    assertTrue(reused, "No packet was reused");
+  }
+
+  @Test
+  void recycledChatIsReset() {
+    assumeTrue(PooledPacket.POOLING_ENABLED, "Packet pooling is disabled");
+    Set<Chat> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    boolean reused = false;
+    for (int i = 0; i < ATTEMPTS && !reused; i++) {
+      Chat packet = Chat.newInstance();
+      if (!seen.add(packet)) {
+        reused = true;
+        assertEquals(0, packet.getType());
+        assertEquals("Chat{message='null', type=0}", packet.toString());
+      }
+      packet.setMessage("message " + i);
+      packet.setType((byte) 1);
+      packet.recycle();
+    }
+    assertTrue(reused, "No packet was reused");
+  }
+
+  @Test
+  void escapedPacketIsNotReused() {
+    Set<KeepAlive> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (int i = 0; i < ATTEMPTS; i++) {
+      KeepAlive packet = KeepAlive.newInstance();
+      assertTrue(seen.add(packet), "An escaped packet was reused");
+      packet.setRandomId(i + 1);
+      packet.escape();
+      packet.recycle();
+      assertEquals(i + 1, packet.getRandomId());
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package com.velocitypowered.proxy.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.natives.compression.JavaVelocityCompressor;
+import com.velocitypowered.natives.compression.VelocityCompressor;
+import com.velocitypowered.proxy.protocol.ProtocolUtils.Direction;
+import com.velocitypowered.proxy.protocol.netty.CompressedFrame;
+import com.velocitypowered.proxy.protocol.netty.MinecraftCompressEncoder;
+import com.velocitypowered.proxy.protocol.packet.Chat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.zip.Deflater;
+import net.kyori.text.TextComponent;
+import org.junit.jupiter.api.Test;
+
+class PreEncodedPacketTest {
+
+  private static final ProtocolVersion VERSION = ProtocolVersion.MINECRAFT_1_12_2;
+
+  private static byte[] encode(MinecraftPacket packet) {
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(buf, Direction.CLIENTBOUND
+        .getProtocolRegistry(StateRegistry.PLAY, VERSION).getPacketId(packet));
+    packet.encode(buf, Direction.CLIENTBOUND, VERSION);
+    return ByteBufUtil.getBytes(buf);
+  }
+
+  private static PreEncodedPacket largeChat() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      text.append("Hello world! ");
+    }
+    return new PreEncodedPacket(Chat.createClientbound(TextComponent.of(text.toString())),
+        Deflater.DEFAULT_COMPRESSION);
+  }
+
+  @Test
+  void uncompressedMatchesEncoder() {
+    Chat chat = Chat.createClientbound(TextComponent.of("Hello"));
+    PreEncodedPacket packet = new PreEncodedPacket(chat, Deflater.DEFAULT_COMPRESSION);
+    byte[] expected = encode(chat);
+
+    for (int threshold : new int[]{-1, expected.length}) {
+      Object message = packet.messageFor(VERSION, threshold);
+      assertTrue(message instanceof ByteBuf, "Message below threshold was compressed");
+      assertArrayEquals(expected, ByteBufUtil.getBytes((ByteBuf) message));
+      ((ByteBuf) message).release();
+    }
+  }
+
+  @Test
+  void compressedInflatesToEncoded() throws Exception {
+    PreEncodedPacket packet = largeChat();
+    byte[] expected = encode(packet.getPacket());
+
+    Object message = packet.messageFor(VERSION, 256);
+    assertTrue(message instanceof CompressedFrame, "Message above threshold was not compressed");
+    CompressedFrame frame = (CompressedFrame) message;
+    assertEquals(expected.length, frame.getUncompressedSize());
+
+    VelocityCompressor compressor = JavaVelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION);
+    ByteBuf inflated = Unpooled.buffer();
+    try {
+      compressor.inflate(frame.content(), inflated);
+      assertArrayEquals(expected, ByteBufUtil.getBytes(inflated));
+    } finally {
+      compressor.dispose();
+      inflated.release();
+      frame.release();
+    }
+  }
+
+  @Test
+  void releasingMessagesKeepsThePacket() {
+    PreEncodedPacket packet = largeChat();
+    CompressedFrame first = (CompressedFrame) packet.messageFor(VERSION, 256);
+    CompressedFrame second = (CompressedFrame) packet.messageFor(VERSION, 256);
+    try {
+      assertTrue(first.content().isDirect(), "Compressed packet is not direct");
+
+      // Each player releases their message once it is sent, which must not free the packet.
+      byte[] compressed = ByteBufUtil.getBytes(first.content());
+      first.release();
+      first = (CompressedFrame) packet.messageFor(VERSION, 256);
+      assertArrayEquals(compressed, ByteBufUtil.getBytes(first.content()));
+      assertArrayEquals(compressed, ByteBufUtil.getBytes(second.content()));
+    } finally {
+      first.release();
+      second.release();
+    }
+  }
+
+  @Test
+  void compressedFrameIsWrittenAsIs() throws Exception {
+    PreEncodedPacket packet = largeChat();
+    byte[] expected = encode(packet.getPacket());
+    EmbeddedChannel channel = new EmbeddedChannel(new MinecraftCompressEncoder(256,
+        JavaVelocityCompressor.FACTORY.create(Deflater.DEFAULT_COMPRESSION)));
+    assertTrue(channel.writeOutbound(packet.messageFor(VERSION, 256)));
+
+    ByteBuf frame = channel.readOutbound();
+    VelocityCompressor compressor = JavaVelocityCompressor.FACTORY
+        .create(Deflater.DEFAULT_COMPRESSION);
+    ByteBuf inflated = Unpooled.buffer();
+    try {
+      int frameLength = ProtocolUtils.readVarInt(frame);
+      assertEquals(frame.readableBytes(), frameLength);
+      assertEquals(expected.length, ProtocolUtils.readVarInt(frame));
+      compressor.inflate(frame, inflated);
+      assertArrayEquals(expected, ByteBufUtil.getBytes(inflated));
+    } finally {
+      compressor.dispose();
+      inflated.release();
+      frame.release();
+      channel.finishAndReleaseAll();
+    }
+  }
+}
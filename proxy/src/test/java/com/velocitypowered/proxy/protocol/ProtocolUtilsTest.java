@@ -0,0 +1,112 @@
+package com.velocitypowered.proxy.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.velocitypowered.proxy.protocol.util.AsciiStringCache;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+class ProtocolUtilsTest {
+
+  private static final int[] INTERESTING_VALUES = {
+      0, 1, 127, 128, 255, 16383, 16384, 2097151, 2097152, 268435455, 268435456,
+      Integer.MAX_VALUE, -1, Integer.MIN_VALUE
+  };
+
+  private static ByteBuf writeVarIntOneByteAtATime(int value) {
+    ByteBuf buf = Unpooled.buffer();
+    while ((value & 0xFFFFFF80) != 0) {
+      buf.writeByte(value & 0x7F | 0x80);
+      value >>>= 7;
+    }
+    buf.writeByte(value);
+    return buf;
+  }
+
+  @Test
+  void writeVarIntMatchesReferenceEncoding() {
+    for (int value : INTERESTING_VALUES) {
+      ByteBuf expected = writeVarIntOneByteAtATime(value);
+      ByteBuf actual = Unpooled.buffer();
+      ProtocolUtils.writeVarInt(actual, value);
+      assertArrayEquals(ByteBufUtil.getBytes(expected), ByteBufUtil.getBytes(actual),
+          "Wrong encoding for " + value);
+      assertEquals(expected.readableBytes(), ProtocolUtils.varIntBytes(value),
+          "Wrong size for " + value);
+    }
+  }
+
+  @Test
+  void readVarIntRoundTrips() {
+    for (int value : INTERESTING_VALUES) {
+      // Test both with and without enough trailing data to read four bytes at once.
+      ByteBuf exact = writeVarIntOneByteAtATime(value);
+      assertEquals(value, ProtocolUtils.readVarInt(exact));
+      assertFalse(exact.isReadable());
+
+      ByteBuf padded = writeVarIntOneByteAtATime(value).writeZero(8);
+      assertEquals(value, ProtocolUtils.readVarInt(padded));
+      assertEquals(8, padded.readableBytes());
+    }
+  }
+
+  @Test
+  void readVarIntRejectsOversizedVarInts() {
+    ByteBuf buf = Unpooled.wrappedBuffer(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80,
+        (byte) 0x80, (byte) 0x80, 0x01});
+    assertThrows(RuntimeException.class, () -> ProtocolUtils.readVarInt(buf));
+  }
+
+  @Test
+  void read21BitVarIntRoundTrips() {
+    for (int value : new int[]{0, 1, 127, 128, 16384, 2097151}) {
+      ByteBuf buf = Unpooled.buffer();
+      ProtocolUtils.write21BitVarInt(buf, value);
+      assertEquals(3, buf.readableBytes());
+      assertEquals(value, ProtocolUtils.readVarInt(buf));
+    }
+  }
+
+  @Test
+  void readStringDecodesAsciiAndUtf8() {
+    for (String str : new String[]{"", "minecraft:brand", "caf\u00e9", "\ud83d\ude00 emoji"}) {
+      ByteBuf heap = Unpooled.buffer();
+      ProtocolUtils.writeString(heap, str);
+      assertEquals(str, ProtocolUtils.readString(heap));
+
+      ByteBuf direct = Unpooled.directBuffer();
+      ProtocolUtils.writeString(direct, str);
+      assertEquals(str, ProtocolUtils.readString(direct));
+      direct.release();
+    }
+  }
+
+  @Test
+  void readStringEnforcesCap() {
+    ByteBuf ascii = Unpooled.buffer();
+    ProtocolUtils.writeString(ascii, "abcdef");
+    assertThrows(RuntimeException.class, () -> ProtocolUtils.readString(ascii, 5));
+
+    ByteBuf utf8 = Unpooled.buffer();
+    ProtocolUtils.writeString(utf8, "\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9");
+    assertThrows(RuntimeException.class, () -> ProtocolUtils.readString(utf8, 5));
+  }
+
+  @Test
+  void readStringReusesCachedInstances() {
+    AsciiStringCache cache = new AsciiStringCache(16, 32);
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeString(buf, "minecraft:register");
+    ProtocolUtils.writeString(buf, "minecraft:register");
+    ProtocolUtils.writeString(buf, "caf\u00e9");
+    String first = ProtocolUtils.readString(buf, cache);
+    assertSame(first, ProtocolUtils.readString(buf, cache));
+    assertEquals("caf\u00e9", ProtocolUtils.readString(buf, cache));
+  }
+}
@@ -0,0 +1,73 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompressibilityProbeTest {
+
+  private static final int PACKET_ID = 0x18;
+
+  private static ByteBuf randomPacket(int size) {
+    byte[] data = new byte[size];
+    new Random(1).nextBytes(data);
+    data[0] = PACKET_ID;
+    return Unpooled.wrappedBuffer(data);
+  }
+
+  private static ByteBuf textPacket(int size) {
+    ByteBuf buf = Unpooled.buffer(size);
+    buf.writeByte(PACKET_ID);
+    while (buf.writerIndex() < size) {
+      buf.writeByte('a' + buf.writerIndex() % 26);
+    }
+    return buf;
+  }
+
+  @Test
+  void skipsRandomPackets() {
+    CompressibilityProbe probe = new CompressibilityProbe();
+    ByteBuf packet = randomPacket(4096);
+    assertFalse(probe.shouldCompress(CompressibilityProbe.packetId(packet), packet));
+  }
+
+  @Test
+  void compressesTextPackets() {
+    CompressibilityProbe probe = new CompressibilityProbe();
+    ByteBuf packet = textPacket(4096);
+    assertTrue(probe.shouldCompress(CompressibilityProbe.packetId(packet), packet));
+  }
+
+  @Test
+  void compressesSmallPacketsWithoutGuessing() {
+    CompressibilityProbe probe = new CompressibilityProbe();
+    ByteBuf packet = randomPacket(128);
+    assertTrue(probe.shouldCompress(CompressibilityProbe.packetId(packet), packet));
+  }
+
+  @Test
+  void stillCompressesSomeRandomPackets() {
+    CompressibilityProbe probe = new CompressibilityProbe();
+    ByteBuf packet = randomPacket(4096);
+    int compressed = 0;
+    for (int i = 0; i < 128; i++) {
+      if (probe.shouldCompress(CompressibilityProbe.packetId(packet), packet)) {
+        compressed++;
+      }
+    }
+    assertEquals(2, compressed);
+  }
+
+  @Test
+  void trustsPacketIdsThatCompressWell() {
+    CompressibilityProbe probe = new CompressibilityProbe();
+    probe.record(PACKET_ID, 4096, 512);
+    ByteBuf packet = randomPacket(4096);
+    assertTrue(probe.shouldCompress(CompressibilityProbe.packetId(packet), packet));
+  }
+}
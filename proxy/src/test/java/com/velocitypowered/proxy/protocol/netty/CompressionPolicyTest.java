@@ -0,0 +1,39 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.velocitypowered.proxy.protocol.netty.CompressionPolicy.Decision;
+import org.junit.jupiter.api.Test;
+
+class CompressionPolicyTest {
+
+  private static final int LARGE_PACKET = 65536;
+  private static final int SMALL_PACKET = 2048;
+
+  @Test
+  void usesConfiguredLevelWhenIdle() {
+    CompressionPolicy policy = new CompressionPolicy(-1);
+    assertEquals(Decision.CONFIGURED, policy.decide(LARGE_PACKET, false, false));
+    assertEquals(Decision.CONFIGURED, policy.decide(SMALL_PACKET, false, false));
+  }
+
+  @Test
+  void compressesLessWhenBusy() {
+    CompressionPolicy policy = new CompressionPolicy(-1);
+    assertEquals(Decision.FAST, policy.decide(LARGE_PACKET, true, false));
+    assertEquals(Decision.STORE, policy.decide(SMALL_PACKET, true, false));
+  }
+
+  @Test
+  void usesConfiguredLevelWhenLinkIsCongested() {
+    CompressionPolicy policy = new CompressionPolicy(-1);
+    assertEquals(Decision.CONFIGURED, policy.decide(LARGE_PACKET, true, true));
+    assertEquals(Decision.CONFIGURED, policy.decide(SMALL_PACKET, true, true));
+  }
+
+  @Test
+  void neverSwitchesToFastLevelIfAlreadyFast() {
+    CompressionPolicy policy = new CompressionPolicy(1);
+    assertEquals(Decision.CONFIGURED, policy.decide(LARGE_PACKET, true, false));
+  }
+}
@@ -0,0 +1,79 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.velocitypowered.proxy.protocol.ProtocolUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+
+class MinecraftVarintFrameDecoderTest {
+
+  private static ByteBuf frame(int length) {
+    ByteBuf buf = Unpooled.buffer();
+    ProtocolUtils.writeVarInt(buf, length);
+    for (int i = 0; i < length; i++) {
+      buf.writeByte(i);
+    }
+    return buf;
+  }
+
+  private static void assertFrame(EmbeddedChannel channel, int length) {
+    ByteBuf decoded = channel.readInbound();
+    try {
+      assertEquals(length, decoded.readableBytes());
+      for (int i = 0; i < length; i++) {
+        assertEquals((byte) i, decoded.getByte(i));
+      }
+    } finally {
+      decoded.release();
+    }
+  }
+
+  @Test
+  void decodesSeveralFramesInOneRead() {
+    EmbeddedChannel channel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+    channel.writeInbound(Unpooled.wrappedBuffer(frame(1), frame(300), frame(20000)));
+    assertFrame(channel, 1);
+    assertFrame(channel, 300);
+    assertFrame(channel, 20000);
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void decodesFramesSplitAcrossReads() {
+    EmbeddedChannel channel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+    ByteBuf stream = Unpooled.wrappedBuffer(frame(300), frame(5));
+    // Feed the stream one byte at a time, which also splits the length of the first frame.
+    while (stream.isReadable()) {
+      channel.writeInbound(stream.readRetainedSlice(1));
+    }
+    stream.release();
+    assertFrame(channel, 300);
+    assertFrame(channel, 5);
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void skipsEmptyFrames() {
+    EmbeddedChannel channel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+    channel.writeInbound(Unpooled.wrappedBuffer(frame(0), frame(2)));
+    assertFrame(channel, 2);
+    assertNull(channel.readInbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  void rejectsOversizedLength() {
+    EmbeddedChannel channel = new EmbeddedChannel(new MinecraftVarintFrameDecoder());
+    assertThrows(DecoderException.class, () -> channel.writeInbound(
+        Unpooled.wrappedBuffer(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01})));
+    channel.finishAndReleaseAll();
+  }
+}
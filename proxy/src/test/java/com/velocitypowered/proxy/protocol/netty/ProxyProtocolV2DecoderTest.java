@@ -0,0 +1,123 @@
+package com.velocitypowered.proxy.protocol.netty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import org.junit.jupiter.api.Test;
+
+class ProxyProtocolV2DecoderTest {
+
+  private static final byte[] SIGNATURE = {
+      0x0D, 0x0A, 0x0D, 0x0A, 0x00, 0x0D, 0x0A, 0x51, 0x55, 0x49, 0x54, 0x0A
+  };
+
+  private static ByteBuf header(int versionAndCommand, int familyAndTransport, byte[] source,
+      byte[] destination, int sourcePort, int destinationPort) {
+    ByteBuf buf = Unpooled.buffer();
+    buf.writeBytes(SIGNATURE);
+    buf.writeByte(versionAndCommand);
+    buf.writeByte(familyAndTransport);
+    buf.writeShort(source.length + destination.length + 4);
+    buf.writeBytes(source);
+    buf.writeBytes(destination);
+    buf.writeShort(sourcePort);
+    buf.writeShort(destinationPort);
+    return buf;
+  }
+
+  private static void assertPayload(EmbeddedChannel channel, int... expected) {
+    ByteBuf payload = channel.readInbound();
+    try {
+      assertEquals(expected.length, payload.readableBytes());
+      for (int b : expected) {
+        assertEquals(b, payload.readUnsignedByte());
+      }
+    } finally {
+      payload.release();
+    }
+  }
+
+  @Test
+  void decodesIpv4SourceAndRemovesItself() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new ProxyProtocolV2Decoder());
+    ByteBuf in = header(0x21, 0x11, new byte[]{(byte) 203, 0, 113, 7}, new byte[]{10, 0, 0, 1},
+        51234, 25565);
+    in.writeByte(0x10).writeByte(0x00);
+    channel.writeInbound(in);
+
+    assertEquals(new InetSocketAddress(InetAddress.getByName("203.0.113.7"), 51234),
+        channel.readInbound());
+    assertPayload(channel, 0x10, 0x00);
+    assertNull(channel.pipeline().get(ProxyProtocolV2Decoder.class));
+  }
+
+  @Test
+  void addressIsPassedOnBeforePayload() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new ProxyProtocolV2Decoder());
+    ByteBuf in = header(0x21, 0x11, new byte[]{(byte) 198, 51, 100, 20}, new byte[]{10, 0, 0, 1},
+        40000, 25565);
+    in.writeByte(0x01).writeByte(0x02).writeByte(0x03);
+    channel.writeInbound(in);
+    channel.writeInbound(Unpooled.wrappedBuffer(new byte[]{0x04}));
+
+    assertEquals(new InetSocketAddress(InetAddress.getByName("198.51.100.20"), 40000),
+        channel.readInbound());
+    assertPayload(channel, 0x01, 0x02, 0x03);
+    assertPayload(channel, 0x04);
+    assertNull(channel.readInbound());
+  }
+
+  @Test
+  void decodesIpv6Source() throws Exception {
+    byte[] source = InetAddress.getByName("2001:db8::1").getAddress();
+    byte[] destination = InetAddress.getByName("2001:db8::2").getAddress();
+    EmbeddedChannel channel = new EmbeddedChannel(new ProxyProtocolV2Decoder());
+    channel.writeInbound(header(0x21, 0x21, source, destination, 40000, 25565));
+
+    assertEquals(new InetSocketAddress(InetAddress.getByAddress(source), 40000),
+        channel.readInbound());
+  }
+
+  @Test
+  void waitsForCompleteHeader() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new ProxyProtocolV2Decoder());
+    ByteBuf in = header(0x21, 0x11, new byte[]{1, 2, 3, 4}, new byte[]{5, 6, 7, 8}, 1, 2);
+    channel.writeInbound(in.readRetainedSlice(10));
+    channel.writeInbound(in.readRetainedSlice(10));
+    assertNull(channel.readInbound());
+    channel.writeInbound(in);
+
+    assertEquals(new InetSocketAddress(InetAddress.getByName("1.2.3.4"), 1),
+        channel.readInbound());
+  }
+
+  @Test
+  void localCommandKeepsRealAddress() {
+    EmbeddedChannel channel = new EmbeddedChannel(new ProxyProtocolV2Decoder());
+    ByteBuf in = Unpooled.buffer();
+    in.writeBytes(SIGNATURE);
+    in.writeByte(0x20);
+    in.writeByte(0x00);
+    in.writeShort(0);
+    in.writeByte(0xFE);
+    channel.writeInbound(in);
+
+    assertPayload(channel, 0xFE);
+    assertNull(channel.pipeline().get(ProxyProtocolV2Decoder.class));
+  }
+
+  @Test
+  void rejectsInvalidSignature() {
+    EmbeddedChannel channel = new EmbeddedChannel(new ProxyProtocolV2Decoder());
+    ByteBuf in = Unpooled.buffer();
+    in.writeBytes("PROXY TCP4 ".getBytes());
+    assertThrows(DecoderException.class, () -> channel.writeInbound(in));
+  }
+}
@@ -0,0 +1,37 @@
+package com.velocitypowered.proxy.protocol.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveSizeHintTest {
+
+  @Test
+  void growsImmediately() {
+    AdaptiveSizeHint hint = new AdaptiveSizeHint(256, 16, 4096);
+    hint.record(1000);
+    assertEquals(1000, hint.guess());
+    hint.record(10000);
+    assertEquals(4096, hint.guess());
+  }
+
+  @Test
+  void shrinksGradually() {
+    AdaptiveSizeHint hint = new AdaptiveSizeHint(1024, 16, 4096);
+    hint.record(0);
+    assertEquals(896, hint.guess());
+    for (int i = 0; i < 100; i++) {
+      hint.record(0);
+    }
+    assertTrue(hint.guess() < 32, "Guess did not shrink");
+    assertTrue(hint.guess() >= 16, "Guess went below the minimum");
+  }
+
+  @Test
+  void rejectsInitialGuessOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveSizeHint(8, 16, 4096));
+    assertThrows(IllegalArgumentException.class, () -> new AdaptiveSizeHint(8192, 16, 4096));
+  }
+}
@@ -0,0 +1,35 @@
+package com.velocitypowered.proxy.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.net.InetAddresses;
+import org.junit.jupiter.api.Test;
+
+class AddressRangeTest {
+
+  @Test
+  void matchesCidrRanges() {
+    AddressRange range = AddressRange.parse("10.1.0.0/17");
+    assertTrue(range.contains(InetAddresses.forString("10.1.0.1")));
+    assertTrue(range.contains(InetAddresses.forString("10.1.127.255")));
+    assertFalse(range.contains(InetAddresses.forString("10.1.128.0")));
+    assertFalse(range.contains(InetAddresses.forString("2001:db8::1")));
+  }
+
+  @Test
+  void matchesSingleAddresses() {
+    AddressRange range = AddressRange.parse("2001:db8::1");
+    assertTrue(range.contains(InetAddresses.forString("2001:db8::1")));
+    assertFalse(range.contains(InetAddresses.forString("2001:db8::2")));
+    assertTrue(AddressRange.parse("0.0.0.0/0").contains(InetAddresses.forString("192.0.2.1")));
+  }
+
+  @Test
+  void rejectsInvalidRanges() {
+    assertThrows(IllegalArgumentException.class, () -> AddressRange.parse("example.com"));
+    assertThrows(IllegalArgumentException.class, () -> AddressRange.parse("10.0.0.0/33"));
+    assertThrows(IllegalArgumentException.class, () -> AddressRange.parse("10.0.0.0/x"));
+  }
+}